@@ -2,8 +2,13 @@ package com.pokemonreview.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+//r2dbc only serves the streaming reads through its DatabaseClient. they are single statements and need no
+//transactions, a second transaction manager would make every @Transactional ambiguous or take the place of the
+//jpa one, and the repositories all belong to jpa
+@SpringBootApplication(exclude = {R2dbcTransactionManagerAutoConfiguration.class, R2dbcRepositoriesAutoConfiguration.class})
 public class ApiApplication {
 
 	public static void main(String[] args) {
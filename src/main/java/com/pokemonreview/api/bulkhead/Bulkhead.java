@@ -0,0 +1,64 @@
+package com.pokemonreview.api.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+//caps how many requests of one workload run at once, a caller waits at most maxWait for a permit
+public class Bulkhead {
+
+    public static final String ACTIVE_METRIC_NAME = "app.bulkhead.active";
+    public static final String LIMIT_METRIC_NAME = "app.bulkhead.limit";
+    public static final String REJECTED_METRIC_NAME = "app.bulkhead.rejected";
+
+    private final Semaphore permits;
+    private final int limit;
+    private final Duration maxWait;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int limit, Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(limit);
+        this.limit = limit;
+        this.maxWait = maxWait;
+        Gauge.builder(ACTIVE_METRIC_NAME, this, Bulkhead::getActive)
+                .description("Requests currently running in the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder(LIMIT_METRIC_NAME, this, Bulkhead::getLimit)
+                .description("Requests the bulkhead lets run at once")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_METRIC_NAME)
+                .description("Requests turned away because the bulkhead was full")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
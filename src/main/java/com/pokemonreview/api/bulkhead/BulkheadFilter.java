@@ -0,0 +1,97 @@
+package com.pokemonreview.api.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.exceptions.ErrorObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+
+//registered ahead of the security filters, the jwt user lookup counts against the bulkhead and a rejected
+//request never touches the database
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Map<Workload, Bulkhead> bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Map<Workload, Bulkhead> bulkheads, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Workload workload = Workload.of(request);
+        Bulkhead bulkhead = bulkheads.get(workload);
+        if (!bulkhead.tryAcquire()) {
+            reject(response, workload);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                //a streamed body is still being written, the permit goes back once it is done
+                request.getAsyncContext().addListener(new ReleasingListener(bulkhead));
+            } else {
+                bulkhead.release();
+            }
+        }
+    }
+
+    //written here rather than through sendError, the error dispatch would run into the security filters
+    private void reject(HttpServletResponse response, Workload workload) throws IOException {
+        ErrorObject errorObject = new ErrorObject();
+        errorObject.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorObject.setMessage("Too many " + workload.name().toLowerCase() + " requests in progress, try again shortly");
+        errorObject.setTimestamp(new Date());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorObject);
+    }
+
+    //complete follows timeouts and errors as well, so that is the only event to release on
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+
+        ReleasingListener(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pokemonreview.api.bulkhead;
+
+import javax.servlet.http.HttpServletRequest;
+
+public enum Workload {
+    AUTH,
+    READ,
+    WRITE,
+    //the catalog export holds on to a jdbc connection for as long as the client keeps reading
+    EXPORT,
+    //the ndjson streams read over r2dbc, they hold a connection of that pool and none of hikari's
+    STREAM;
+
+    public static Workload of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.equals("/api/pokemon/export")) {
+            return EXPORT;
+        }
+        if (path.endsWith("/stream")) {
+            return STREAM;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
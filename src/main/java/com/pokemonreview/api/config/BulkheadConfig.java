@@ -0,0 +1,50 @@
+package com.pokemonreview.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.bulkhead.Bulkhead;
+import com.pokemonreview.api.bulkhead.BulkheadFilter;
+import com.pokemonreview.api.bulkhead.Workload;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+//a request holds one connection at a time. the jdbc limits add up to the hikari pool size less a reserve for what
+//takes connections outside the bulkheads: the scheduling thread that runs the leaderboard refresh and the
+//outbox relay (1), the write-behind writer (1) and the health check (1).
+//the search index and leaderboard load before the server takes requests. no workload ever waits on another
+//for a connection, a long export can no longer starve the logins. the streams are limited to the r2dbc pool
+//instead and left out of that sum
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${app.bulkhead.max-wait:100ms}") Duration maxWait,
+            @Value("${app.bulkhead.auth.limit:4}") int authLimit,
+            @Value("${app.bulkhead.read.limit:12}") int readLimit,
+            @Value("${app.bulkhead.write.limit:6}") int writeLimit,
+            @Value("${app.bulkhead.export.limit:2}") int exportLimit,
+            @Value("${app.bulkhead.stream.limit:${spring.r2dbc.pool.max-size:10}}") int streamLimit) {
+        Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+        bulkheads.put(Workload.AUTH, new Bulkhead("auth", authLimit, maxWait, meterRegistry));
+        bulkheads.put(Workload.READ, new Bulkhead("read", readLimit, maxWait, meterRegistry));
+        bulkheads.put(Workload.WRITE, new Bulkhead("write", writeLimit, maxWait, meterRegistry));
+        bulkheads.put(Workload.EXPORT, new Bulkhead("export", exportLimit, maxWait, meterRegistry));
+        bulkheads.put(Workload.STREAM, new Bulkhead("stream", streamLimit, maxWait, meterRegistry));
+
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(new BulkheadFilter(bulkheads, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        //right after the statement counter, which only counts and never blocks
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
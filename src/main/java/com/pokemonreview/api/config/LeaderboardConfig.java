@@ -0,0 +1,28 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.leaderboard.PokemonLeaderboard;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+//the refresh itself runs on app.leaderboard.refresh-interval, see PokemonLeaderboard.refresh
+@Configuration
+@EnableScheduling
+public class LeaderboardConfig {
+
+    //the first load ranks pokemon rated by the backfill too
+    @Bean
+    @DependsOn({"ratingBackfill", "averageStarsBackfill"})
+    public PokemonLeaderboard pokemonLeaderboard(PokemonRatingRepository pokemonRatingRepository,
+                                                 PlatformTransactionManager transactionManager,
+                                                 @Value("${app.leaderboard.prior-weight:10}") double priorWeight,
+                                                 @Value("${app.leaderboard.full-reload-interval:PT10M}") Duration fullReloadInterval) {
+        return new PokemonLeaderboard(pokemonRatingRepository, transactionManager, priorWeight, fullReloadInterval);
+    }
+}
@@ -0,0 +1,40 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.metrics.MethodTimingAspect;
+import com.pokemonreview.api.metrics.SqlStatementCountFilter;
+import com.pokemonreview.api.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+//request level timers and percentiles come from spring boot, see the management.metrics properties
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry) {
+        return new MethodTimingAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    //the header is meant for the dev profile, the metric and the warning are always on
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.metrics.sql.expose-header:false}") boolean exposeHeader,
+            @Value("${app.metrics.sql.warn-threshold:20}") int warnThreshold) {
+        FilterRegistrationBean<SqlStatementCountFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatementCountFilter(meterRegistry, exposeHeader, warnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,57 @@
+package com.pokemonreview.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.outbox.ChangeEventSink;
+import com.pokemonreview.api.outbox.FileChangeEventSink;
+import com.pokemonreview.api.outbox.InMemoryChangeEventSink;
+import com.pokemonreview.api.outbox.OutboxRelay;
+import com.pokemonreview.api.outbox.OutboxWriter;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import com.pokemonreview.api.repository.OutboxRelayStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+//the relay runs on app.outbox.relay-interval, see OutboxRelay.relay
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    public OutboxWriter outboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        return new OutboxWriter(outboxEventRepository, objectMapper);
+    }
+
+    //with none the offsets are still handed out, consumers read the stream from GET /api/changes
+    @Bean
+    public ChangeEventSink changeEventSink(ObjectMapper objectMapper,
+                                           @Value("${app.outbox.sink:none}") String sink,
+                                           @Value("${app.outbox.file:changes.jsonl}") String file) {
+        switch (sink) {
+            case "none":
+                return events -> { };
+            case "memory":
+                return new InMemoryChangeEventSink();
+            case "file":
+                return new FileChangeEventSink(Path.of(file), objectMapper);
+            default:
+                throw new IllegalStateException("Unknown app.outbox.sink " + sink + ", expected none, memory or file");
+        }
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   OutboxRelayStateRepository outboxRelayStateRepository,
+                                   ChangeEventSink changeEventSink,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.outbox.batch-size:500}") int batchSize,
+                                   @Value("${app.outbox.retention:P7D}") Duration retention) {
+        return new OutboxRelay(outboxEventRepository, outboxRelayStateRepository, changeEventSink, transactionManager,
+                batchSize, retention);
+    }
+}
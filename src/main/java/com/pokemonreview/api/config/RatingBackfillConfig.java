@@ -0,0 +1,43 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.repository.PokemonRatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+
+//pokemon_rating and its average_stars column were added after pokemon and reviews existed. rows missing either
+//are filled in when the context starts, before the first leaderboard load and before the server takes requests.
+//reads and the rating listing then rely on every pokemon having its row
+@Configuration
+public class RatingBackfillConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingBackfillConfig.class);
+
+    @Bean
+    public InitializingBean ratingBackfill(PokemonRatingRepository pokemonRatingRepository) {
+        return () -> {
+            try {
+                int inserted = pokemonRatingRepository.insertMissing();
+                if (inserted > 0) {
+                    log.info("Counted the ratings of {} pokemon from their reviews", inserted);
+                }
+            } catch (DataIntegrityViolationException ex) {
+                //another instance starting at the same time inserted them first
+                log.info("Pokemon ratings were filled in by another instance");
+            }
+        };
+    }
+
+    @Bean
+    public InitializingBean averageStarsBackfill(PokemonRatingRepository pokemonRatingRepository) {
+        return () -> {
+            int filled = pokemonRatingRepository.fillMissingAverageStars();
+            if (filled > 0) {
+                log.info("Filled in the average stars of {} pokemon ratings", filled);
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.service.ReviewService;
+import com.pokemonreview.api.writebehind.ReviewWriteBehindQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ReviewQueueConfig {
+
+    @Bean
+    public ReviewWriteBehindQueue reviewWriteBehindQueue(ReviewService reviewService, MeterRegistry meterRegistry,
+                                                         @Value("${app.review-queue.capacity:10000}") int capacity,
+                                                         @Value("${app.review-queue.batch-size:500}") int batchSize,
+                                                         @Value("${app.review-queue.drain-timeout:30s}") Duration drainTimeout,
+                                                         @Value("${app.review-queue.status-retention:10m}") Duration statusRetention) {
+        return new ReviewWriteBehindQueue(reviewService, capacity, batchSize, drainTimeout, statusRetention, meterRegistry);
+    }
+}
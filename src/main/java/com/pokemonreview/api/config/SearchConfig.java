@@ -0,0 +1,22 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.search.ReviewSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SearchConfig {
+
+    //the index is rebuilt on every start, the directory only decides where it lives on disk
+    @Bean(destroyMethod = "close")
+    public ReviewSearchIndex reviewSearchIndex(ReviewRepository reviewRepository,
+                                               PlatformTransactionManager transactionManager,
+                                               @Value("${app.search.index-dir:}") String indexDir) {
+        return new ReviewSearchIndex(reviewRepository, transactionManager, indexDir.isBlank() ? null : Path.of(indexDir));
+    }
+}
@@ -0,0 +1,55 @@
+package com.pokemonreview.api.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+//hit and miss counts per region come from hibernate statistics, this adds the region sizes
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final List<String> REGIONS = List.of("pokemon", "review", "pokemon-reviews");
+
+    //a uri of its own keeps application contexts sharing a jvm, like tests, from sharing entries
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:pokemonreview:" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                Gauge.builder("hibernate.second.level.cache.size", secondLevelCacheManager, cacheManager -> size(cacheManager, region))
+                        .tag("region", region)
+                        .description("Estimated number of entries in the second-level cache region")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double size(CacheManager cacheManager, String region) {
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        if (cache == null) {
+            return 0;
+        }
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -0,0 +1,47 @@
+package com.pokemonreview.api.config;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+//pokemon and review ids came from identity columns before they moved to pooled sequences, outbox ids from a
+//pooled sequence before they moved to one of their own. schema update creates a new sequence at 1, so on a
+//database that already has rows the first ids handed out would collide with them
+@Configuration
+public class SequenceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceConfig.class);
+
+    private static final Map<String, String> TABLES_BY_SEQUENCE = Map.of(
+            "pokemon_seq", "pokemon", "review_seq", "review", "outbox_event_id_seq", "outbox_event");
+
+    //the allocationSize of each sequence generator
+    private static final Map<String, Integer> ALLOCATION_SIZES = Map.of(
+            "pokemon_seq", 50, "review_seq", 50, "outbox_event_id_seq", 1);
+
+    //runs before the web server starts, so nothing is inserted with the old sequence value. hibernate's pooled
+    //optimizer takes each value it reads as the top of a block of allocationSize ids, a sequence is moved
+    //only when that block would reach down to an existing row. one already ahead, say because another instance
+    //holds a block from it, is left alone
+    @Bean
+    public SmartInitializingSingleton sequenceCatchUp(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return () -> TABLES_BY_SEQUENCE.forEach((sequence, table) -> {
+            long lastId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);
+            int allocationSize = ALLOCATION_SIZES.get(sequence);
+            if (next - allocationSize < lastId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (lastId + allocationSize));
+                log.info("Moved {} past the existing {} ids", sequence, table);
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.metrics.PinnedThreadMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+
+//every request blocks on jdbc, on the fixed tomcat pool a burst of slow requests uses up the workers and the
+//rest queue. on virtual threads a blocked request only parks, the hikari pool is then what bounds concurrency
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newExecutor());
+    }
+
+    //async request processing, like the catalog export stream, runs on this one
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newExecutor());
+    }
+
+    @Bean(destroyMethod = "close")
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry meterRegistry,
+                                                   @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new PinnedThreadMonitor(meterRegistry, threshold);
+    }
+}
@@ -0,0 +1,40 @@
+package com.pokemonreview.api.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+
+//the build targets java 17, so the java 21 factory is looked up at runtime instead of being compiled against
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_EXECUTOR = lookupNewExecutor();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    //starts a new virtual thread per task, there is no pool to size
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, this is Java " + Runtime.version().feature());
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invokeExact();
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+
+    private static MethodHandle lookupNewExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(java.util.concurrent.Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.pokemonreview.api.models.Role;
 import com.pokemonreview.api.models.UserEntity;
 import com.pokemonreview.api.repository.RoleRepository;
 import com.pokemonreview.api.repository.UserRepository;
+import com.pokemonreview.api.security.CustomUserDetailsService;
 import com.pokemonreview.api.security.JWTGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,15 +33,18 @@ public class AuthController {
     private RoleRepository roleRepository;
     private PasswordEncoder passwordEncoder;
     private JWTGenerator jwtGenerator;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     public AuthController(AuthenticationManager authenticationManager, UserRepository userRepository,
-                          RoleRepository roleRepository, PasswordEncoder passwordEncoder, JWTGenerator jwtGenerator) {
+                          RoleRepository roleRepository, PasswordEncoder passwordEncoder, JWTGenerator jwtGenerator,
+                          CustomUserDetailsService userDetailsService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtGenerator = jwtGenerator;
+        this.userDetailsService = userDetailsService;
     }
 
     @PostMapping("login")
@@ -68,6 +72,7 @@ public class AuthController {
         user.setRoles(Collections.singletonList(roles));
 
         userRepository.save(user);
+        userDetailsService.evictUser(user.getUsername());
 
         return new ResponseEntity<>("User registered success!", HttpStatus.OK);
     }
@@ -0,0 +1,31 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.service.ChangeEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/")
+public class ChangeEventController {
+
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    public ChangeEventController(ChangeEventService changeEventService) {
+        this.changeEventService = changeEventService;
+    }
+
+    @GetMapping("changes")
+    public ResponseEntity<ChangeEventResponse> getChanges(
+            @RequestParam(value = "after", defaultValue = "0", required = false) long after,
+            @RequestParam(value = "limit", defaultValue = "100", required = false) int limit
+    ) {
+        return new ResponseEntity<>(changeEventService.getChanges(after, limit), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,31 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.TopPokemonResponse;
+import com.pokemonreview.api.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/")
+public class LeaderboardController {
+
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping("pokemon/top")
+    public ResponseEntity<TopPokemonResponse> getTopPokemon(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit
+    ) {
+        return new ResponseEntity<>(leaderboardService.getTopPokemon(type, limit), HttpStatus.OK);
+    }
+}
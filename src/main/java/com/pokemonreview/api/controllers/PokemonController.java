@@ -1,14 +1,17 @@
 package com.pokemonreview.api.controllers;
 
 
+import com.pokemonreview.api.dto.BulkResponse;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonFilter;
 import com.pokemonreview.api.dto.PokemonResponse;
-import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.exceptions.InvalidFilterException;
 import com.pokemonreview.api.service.PokemonService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,14 +29,49 @@ public class PokemonController {
     @GetMapping("pokemon")
     public ResponseEntity<PokemonResponse> getPokemons(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "keyset", defaultValue = "false", required = false) boolean keyset,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "includeTotal", defaultValue = "false", required = false) boolean includeTotal,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "name", required = false) String namePrefix,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "sortBy", required = false) String sortBy,
+            @RequestParam(value = "sortDir", required = false) String sortDir,
+            WebRequest webRequest
     ) {
+        PokemonFilter filter = new PokemonFilter(type, namePrefix, minRating, sortBy, sortDir);
+        if (!filter.isEmpty()) {
+            if (keyset || after != null) {
+                throw new InvalidFilterException("Filtered and sorted listings are paged by pageNo, not by cursor");
+            }
+            PokemonResponse pokemonResponse = pokemonService.getAllPokemon(filter, pageNo, pageSize);
+            if (webRequest.checkNotModified(pokemonService.getPokemonListVersionTag(filter, pokemonResponse))) {
+                return null;
+            }
+            return new ResponseEntity<>(pokemonResponse, HttpStatus.OK);
+        }
+        if (keyset || after != null) {
+            //checkNotModified sets the ETag header, or answers 304 when it matches If-None-Match
+            if (webRequest.checkNotModified(pokemonService.getPokemonListVersionTag(after, pageSize, includeTotal))) {
+                return null;
+            }
+            return new ResponseEntity<>(pokemonService.getAllPokemon(after, pageSize, includeTotal), HttpStatus.OK);
+        }
+        if (webRequest.checkNotModified(pokemonService.getPokemonListVersionTag(pageNo, pageSize))) {
+            return null;
+        }
         return new ResponseEntity<>(pokemonService.getAllPokemon(pageNo, pageSize), HttpStatus.OK);
     }
 
     @GetMapping("pokemon/{id}")
-    public ResponseEntity<PokemonDto> pokemonDetail(@PathVariable int id) {
-        return ResponseEntity.ok(pokemonService.getPokemonById(id));
+    public ResponseEntity<PokemonDto> pokemonDetail(@PathVariable int id, WebRequest webRequest) {
+        //tagged from the read it answers with, a tag newer than the body would let the client overwrite changes it never saw
+        PokemonDto pokemonDto = pokemonService.getPokemonById(id);
+        if (webRequest.checkNotModified(pokemonService.getPokemonVersionTag(pokemonDto))) {
+            return null;
+        }
+        return ResponseEntity.ok(pokemonDto);
 
     }
 
@@ -43,9 +81,15 @@ public class PokemonController {
         return new ResponseEntity<>(pokemonService.createPokemon(pokemonDto), HttpStatus.CREATED);
     }
 
+    @PostMapping("pokemon/bulk")
+    public ResponseEntity<BulkResponse> upsertPokemon(@RequestBody List<PokemonDto> pokemonDtos) {
+        return new ResponseEntity<>(pokemonService.upsertPokemon(pokemonDtos), HttpStatus.OK);
+    }
+
     @PutMapping("pokemon/{id}/update")
-    public ResponseEntity<PokemonDto> updatePokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId) {
-        PokemonDto response = pokemonService.updatePokemon(pokemonDto, pokemonId);
+    public ResponseEntity<PokemonDto> updatePokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        PokemonDto response = pokemonService.updatePokemon(pokemonDto, pokemonId, ifMatch);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -1,23 +1,33 @@
 package com.pokemonreview.api.controllers;
 
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonRatingDto;
+import com.pokemonreview.api.dto.QueuedReviewDto;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewResponse;
+import com.pokemonreview.api.service.ReviewQueueService;
 import com.pokemonreview.api.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/")
 public class ReviewController {
 
     private ReviewService reviewService;
+    private ReviewQueueService reviewQueueService;
 
     @Autowired
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ReviewQueueService reviewQueueService) {
         this.reviewService = reviewService;
+        this.reviewQueueService = reviewQueueService;
     }
 
     @PostMapping("/pokemon/{pokemonId}/reviews")
@@ -25,21 +35,63 @@ public class ReviewController {
         return new ResponseEntity<>(reviewService.createReview(pokemonId, reviewDto), HttpStatus.CREATED);
     }
 
+    //accepted now and written with other queued reviews in one transaction, the tracking id tells the outcome
+    @PostMapping(value = "/pokemon/{pokemonId}/reviews", params = "async=true")
+    public ResponseEntity<QueuedReviewDto> queueReview(@PathVariable(value = "pokemonId") int pokemonId, @RequestBody ReviewDto reviewDto) {
+        QueuedReviewDto queuedReview = reviewQueueService.queueReview(pokemonId, reviewDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reviews/queued/" + queuedReview.getTrackingId()))
+                .body(queuedReview);
+    }
+
+    @GetMapping("/reviews/queued/{trackingId}")
+    public ResponseEntity<QueuedReviewDto> getQueuedReview(@PathVariable(value = "trackingId") String trackingId) {
+        return new ResponseEntity<>(reviewQueueService.getQueuedReview(trackingId), HttpStatus.OK);
+    }
+
+    @PostMapping("/pokemon/reviews/bulk")
+    public ResponseEntity<BulkResponse> createReviews(@RequestBody Map<Integer, List<ReviewDto>> reviewsByPokemonId) {
+        return new ResponseEntity<>(reviewService.createReviews(reviewsByPokemonId), HttpStatus.OK);
+    }
+
     @GetMapping("/pokemon/{pokemonId}/reviews")
-    public List<ReviewDto> getReviewsByPokemonId(@PathVariable(value = "pokemonId") int pokemonId) {
+    public List<ReviewDto> getReviewsByPokemonId(@PathVariable(value = "pokemonId") int pokemonId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(reviewService.getReviewsVersionTag(pokemonId))) {
+            return null;
+        }
         return reviewService.getReviewsByPokemonId(pokemonId);
     }
 
+    @GetMapping("/pokemon/{pokemonId}/reviews/page")
+    public ResponseEntity<ReviewResponse> getReviewPageByPokemonId(
+            @PathVariable(value = "pokemonId") int pokemonId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "20", required = false) int limit
+    ) {
+        return new ResponseEntity<>(reviewService.getReviewsByPokemonId(pokemonId, after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/pokemon/{pokemonId}/rating")
+    public ResponseEntity<PokemonRatingDto> getRatingByPokemonId(@PathVariable(value = "pokemonId") int pokemonId) {
+        return new ResponseEntity<>(reviewService.getRatingByPokemonId(pokemonId), HttpStatus.OK);
+    }
+
     @GetMapping("/pokemon/{pokemonId}/reviews/{id}")
-    public ResponseEntity<ReviewDto> getReviewById(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId) {
-        ReviewDto reviewDto = reviewService.getReviewById(pokemonId, reviewId);
+    public ResponseEntity<ReviewDto> getReviewById(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId,
+                                                   WebRequest webRequest) {
+        //tagged from the read it answers with, a tag newer than the body would let the client overwrite changes it never saw
+        ReviewDto reviewDto = reviewService.getReviewById(reviewId, pokemonId);
+        if (webRequest.checkNotModified(reviewService.getReviewVersionTag(reviewDto))) {
+            return null;
+        }
         return new ResponseEntity<>(reviewDto, HttpStatus.OK);
     }
 
     @PutMapping("/pokemon/{pokemonId}/reviews/{id}")
     public ResponseEntity<ReviewDto> updateReview(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId,
-                                                  @RequestBody ReviewDto reviewDto) {
-        ReviewDto updatedReview = reviewService.updateReview(pokemonId, reviewId, reviewDto);
+                                                  @RequestBody ReviewDto reviewDto,
+                                                  @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        ReviewDto updatedReview = reviewService.updateReview(pokemonId, reviewId, reviewDto, ifMatch);
         return new ResponseEntity<>(updatedReview, HttpStatus.OK);
     }
 
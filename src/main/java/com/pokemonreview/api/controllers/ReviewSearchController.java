@@ -0,0 +1,31 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.ReviewSearchHit;
+import com.pokemonreview.api.service.ReviewSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/")
+public class ReviewSearchController {
+
+    private ReviewSearchService reviewSearchService;
+
+    @Autowired
+    public ReviewSearchController(ReviewSearchService reviewSearchService) {
+        this.reviewSearchService = reviewSearchService;
+    }
+
+    @GetMapping("reviews/search")
+    public List<ReviewSearchHit> searchReviews(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "limit", defaultValue = "20", required = false) int limit
+    ) {
+        return reviewSearchService.searchReviews(query, limit);
+    }
+}
@@ -0,0 +1,40 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.PokemonStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+//each item is written as its own json line once the previous one has gone out, the database is read only as fast
+//as the client takes the lines and no request thread waits on it in between
+@RestController
+@RequestMapping("/api/")
+public class StreamController {
+
+    private PokemonStreamService pokemonStreamService;
+
+    @Autowired
+    public StreamController(PokemonStreamService pokemonStreamService) {
+        this.pokemonStreamService = pokemonStreamService;
+    }
+
+    @GetMapping(value = "pokemon/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PokemonDto> streamPokemons(
+            @RequestParam(value = "afterId", defaultValue = "0", required = false) int afterId,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return pokemonStreamService.streamPokemon(afterId, limit);
+    }
+
+    @GetMapping(value = "pokemon/{pokemonId}/reviews/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReviewDto> streamReviewsByPokemonId(@PathVariable(value = "pokemonId") int pokemonId) {
+        return pokemonStreamService.streamReviewsByPokemonId(pokemonId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pokemonreview.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private Integer pokemonId;
+    private int index;
+    private Integer id;
+    private BulkItemStatus status;
+    private String message;
+}
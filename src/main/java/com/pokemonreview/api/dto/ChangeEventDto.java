@@ -0,0 +1,27 @@
+package com.pokemonreview.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.pokemonreview.api.events.ChangeEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDto {
+    private long offset;
+    private ChangeEventType type;
+    private int pokemonId;
+    private Integer reviewId;
+    //the pokemon or review as it was saved, stored as json and passed on as is
+    @JsonRawValue
+    private String payload;
+    private Date createdAt;
+}
@@ -0,0 +1,18 @@
+package com.pokemonreview.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeEventResponse {
+    private List<ChangeEventDto> content;
+    //what to pass as after for the next page, the same offset again when nothing new was there
+    private long nextOffset;
+}
@@ -1,5 +1,6 @@
 package com.pokemonreview.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,4 +14,8 @@ public class PokemonDto {
     private int id;
     private String name;
     private String type;
+
+    //the version the other fields were read at, it reaches the client as the ETag rather than in the body
+    @JsonIgnore
+    private int version;
 }
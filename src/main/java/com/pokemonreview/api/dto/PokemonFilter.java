@@ -0,0 +1,23 @@
+package com.pokemonreview.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PokemonFilter {
+    private String type;
+    private String namePrefix;
+    private Double minRating;
+    //id, name or rating, left null the service picks the one the filters are indexed for
+    private String sortBy;
+    private String sortDir;
+
+    public boolean isEmpty() {
+        return type == null && namePrefix == null && minRating == null && sortBy == null && sortDir == null;
+    }
+}
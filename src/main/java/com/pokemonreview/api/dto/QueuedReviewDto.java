@@ -0,0 +1,21 @@
+package com.pokemonreview.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueuedReviewDto {
+    private String trackingId;
+    private int pokemonId;
+    private QueuedReviewStatus status;
+    //set once the review is saved
+    private Integer reviewId;
+    private String message;
+}
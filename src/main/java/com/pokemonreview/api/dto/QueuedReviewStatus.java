@@ -0,0 +1,7 @@
+package com.pokemonreview.api.dto;
+
+public enum QueuedReviewStatus {
+    QUEUED,
+    CREATED,
+    FAILED
+}
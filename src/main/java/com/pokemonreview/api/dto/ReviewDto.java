@@ -1,5 +1,6 @@
 package com.pokemonreview.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,8 @@ public class ReviewDto {
     private String title;
     private String content;
     private int stars;
+
+    //the version the other fields were read at, it reaches the client as the ETag rather than in the body
+    @JsonIgnore
+    private int version;
 }
@@ -0,0 +1,18 @@
+package com.pokemonreview.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewSearchHit {
+    private int id;
+    private int pokemonId;
+    private String title;
+    private String content;
+    private int stars;
+}
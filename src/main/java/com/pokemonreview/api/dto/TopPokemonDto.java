@@ -0,0 +1,20 @@
+package com.pokemonreview.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopPokemonDto {
+    private int id;
+    private String name;
+    private String type;
+    private int reviewCount;
+    private double averageStars;
+    //the bayesian average the ranking is ordered by
+    private double score;
+}
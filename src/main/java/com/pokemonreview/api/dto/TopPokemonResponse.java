@@ -0,0 +1,20 @@
+package com.pokemonreview.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopPokemonResponse {
+    private List<TopPokemonDto> content;
+    //the mean of every review, what a pokemon with few reviews is pulled towards
+    private double meanStars;
+    private Date refreshedAt;
+}
@@ -0,0 +1,10 @@
+package com.pokemonreview.api.events;
+
+//what an entry of the change stream records, one per event the services publish
+public enum ChangeEventType {
+    POKEMON_SAVED,
+    //the reviews of the pokemon go with it, no REVIEW_DELETED follows for them
+    POKEMON_DELETED,
+    REVIEW_SAVED,
+    REVIEW_DELETED
+}
@@ -0,0 +1,11 @@
+package com.pokemonreview.api.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+//the reviews of the pokemon go with it, no ReviewDeletedEvent is published for them
+@Data
+@AllArgsConstructor
+public class PokemonDeletedEvent {
+    private int pokemonId;
+}
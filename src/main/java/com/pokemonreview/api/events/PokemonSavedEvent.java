@@ -0,0 +1,13 @@
+package com.pokemonreview.api.events;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+//published inside the transaction that created the pokemon or changed its name or type
+@Data
+@AllArgsConstructor
+public class PokemonSavedEvent {
+    private int pokemonId;
+    private PokemonDto pokemon;
+}
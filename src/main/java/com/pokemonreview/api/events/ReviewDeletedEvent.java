@@ -0,0 +1,11 @@
+package com.pokemonreview.api.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReviewDeletedEvent {
+    private int pokemonId;
+    private int reviewId;
+}
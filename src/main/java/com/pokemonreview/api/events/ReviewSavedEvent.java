@@ -0,0 +1,13 @@
+package com.pokemonreview.api.events;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+//published inside the transaction that created or updated the review
+@Data
+@AllArgsConstructor
+public class ReviewSavedEvent {
+    private int pokemonId;
+    private ReviewDto review;
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class ChangeOffsetExpiredException extends RuntimeException {
+    private static final long serialVerisionUID = 8;
+
+    public ChangeOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    private static final long serialVerisionUID = 3;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class InvalidFilterException extends RuntimeException {
+    private static final long serialVerisionUID = 6;
+
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
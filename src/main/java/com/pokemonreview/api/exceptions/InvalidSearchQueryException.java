@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    private static final long serialVerisionUID = 5;
+
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
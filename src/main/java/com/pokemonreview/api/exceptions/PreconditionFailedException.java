@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    private static final long serialVerisionUID = 4;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
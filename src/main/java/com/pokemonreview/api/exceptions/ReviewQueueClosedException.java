@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class ReviewQueueClosedException extends RuntimeException {
+    private static final long serialVerisionUID = 9;
+
+    public ReviewQueueClosedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,245 @@
+package com.pokemonreview.api.leaderboard;
+
+import com.pokemonreview.api.dto.TopPokemonDto;
+import com.pokemonreview.api.events.PokemonDeletedEvent;
+import com.pokemonreview.api.events.PokemonSavedEvent;
+import com.pokemonreview.api.events.ReviewDeletedEvent;
+import com.pokemonreview.api.events.ReviewSavedEvent;
+import com.pokemonreview.api.repository.LeaderboardRow;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+//ranks pokemon by a bayesian average of their stars: every pokemon counts priorWeight extra reviews at the mean
+//of all reviews, so one five star review does not outrank hundreds of good ones. requests are answered from the
+//last ranking in memory. a scheduled refresh reads back the rating aggregates of the pokemon changed since, and
+//reloads all of them now and then, which also picks up the writes other instances served
+public class PokemonLeaderboard implements SmartInitializingSingleton {
+
+    public static final int MAX_LIMIT = 100;
+
+    //keeps the id lookup well under the bind parameter limit of postgres
+    private static final int ID_CHUNK = 1000;
+    private static final Logger log = LoggerFactory.getLogger(PokemonLeaderboard.class);
+
+    private final PokemonRatingRepository pokemonRatingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double priorWeight;
+    private final long fullReloadNanos;
+
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+    private volatile Ranking ranking = new Ranking(List.of(), Map.of(), 0, new Date());
+
+    //only touched under the lock of refresh
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private long totalReviews;
+    private long totalStars;
+    private long lastReload;
+    private boolean loaded;
+
+    public PokemonLeaderboard(PokemonRatingRepository pokemonRatingRepository, PlatformTransactionManager transactionManager,
+                              double priorWeight, Duration fullReloadInterval) {
+        this.pokemonRatingRepository = pokemonRatingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.priorWeight = priorWeight;
+        this.fullReloadNanos = fullReloadInterval.toNanos();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    //best first, type null for every type. the ranking holds MAX_LIMIT per type, limit is capped to that
+    public List<TopPokemonDto> top(String type, int limit) {
+        Ranking current = ranking;
+        List<TopPokemonDto> ranked = type == null ? current.overall : current.byType.getOrDefault(type, List.of());
+        return ranked.subList(0, Math.min(Math.max(limit, 0), ranked.size()));
+    }
+
+    public double meanStars() {
+        return ranking.meanStars;
+    }
+
+    public Date refreshedAt() {
+        return ranking.refreshedAt;
+    }
+
+    @Scheduled(fixedDelayString = "${app.leaderboard.refresh-interval:PT5S}",
+            initialDelayString = "${app.leaderboard.refresh-interval:PT5S}")
+    public synchronized void refresh() {
+        if (!loaded || System.nanoTime() - lastReload >= fullReloadNanos) {
+            reload();
+            return;
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        //taken out before reading, a change committed meanwhile is marked again and read on the next refresh
+        List<Integer> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK, ids.size()));
+            Map<Integer, Entry> rows = new HashMap<>();
+            for (LeaderboardRow row : pokemonRatingRepository.findLeaderboardRows(chunk)) {
+                rows.put(row.getPokemonId(), new Entry(row));
+            }
+            //a pokemon without a row was deleted or has no review left
+            for (Integer id : chunk) {
+                remove(id);
+                Entry entry = rows.get(id);
+                if (entry != null) {
+                    add(entry);
+                }
+            }
+        }
+        rank();
+    }
+
+    //reads every rating aggregate, one row per rated pokemon rather than a group by over the reviews
+    public synchronized void reload() {
+        long started = System.nanoTime();
+        entries.clear();
+        totalReviews = 0;
+        totalStars = 0;
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<LeaderboardRow> rows = pokemonRatingRepository.streamLeaderboardRows()) {
+                rows.forEach(row -> add(new Entry(row)));
+            }
+        });
+        lastReload = started;
+        loaded = true;
+        rank();
+        log.debug("Reloaded the leaderboard from {} rated pokemon in {} ms", entries.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    @TransactionalEventListener
+    public void onReviewSaved(ReviewSavedEvent event) {
+        changed.add(event.getPokemonId());
+    }
+
+    @TransactionalEventListener
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        changed.add(event.getPokemonId());
+    }
+
+    @TransactionalEventListener
+    public void onPokemonDeleted(PokemonDeletedEvent event) {
+        changed.add(event.getPokemonId());
+    }
+
+    @TransactionalEventListener
+    public void onPokemonSaved(PokemonSavedEvent event) {
+        changed.add(event.getPokemonId());
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.pokemonId, entry);
+        totalReviews += entry.reviewCount;
+        totalStars += entry.starsTotal;
+    }
+
+    private void remove(int pokemonId) {
+        Entry entry = entries.remove(pokemonId);
+        if (entry != null) {
+            totalReviews -= entry.reviewCount;
+            totalStars -= entry.starsTotal;
+        }
+    }
+
+    //the mean moves with every review, so every score is recomputed. only MAX_LIMIT per list are kept,
+    //bounded heaps find them without sorting every pokemon
+    private void rank() {
+        double mean = totalReviews > 0 ? (double) totalStars / totalReviews : 0;
+        Comparator<TopPokemonDto> order = Comparator.comparingDouble(TopPokemonDto::getScore)
+                .thenComparingInt(TopPokemonDto::getReviewCount)
+                .thenComparing(Comparator.comparingInt(TopPokemonDto::getId).reversed());
+
+        PriorityQueue<TopPokemonDto> overall = new PriorityQueue<>(order);
+        Map<String, PriorityQueue<TopPokemonDto>> byType = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            TopPokemonDto pokemon = TopPokemonDto.builder()
+                    .id(entry.pokemonId)
+                    .name(entry.name)
+                    .type(entry.type)
+                    .reviewCount(entry.reviewCount)
+                    .averageStars((double) entry.starsTotal / entry.reviewCount)
+                    .score((priorWeight * mean + entry.starsTotal) / (priorWeight + entry.reviewCount))
+                    .build();
+            offer(overall, pokemon, order);
+            if (entry.type != null) {
+                offer(byType.computeIfAbsent(entry.type, type -> new PriorityQueue<>(order)), pokemon, order);
+            }
+        }
+
+        Map<String, List<TopPokemonDto>> rankedByType = new HashMap<>();
+        byType.forEach((type, heap) -> rankedByType.put(type, bestFirst(heap, order)));
+        ranking = new Ranking(bestFirst(overall, order), rankedByType, mean, new Date());
+    }
+
+    private static void offer(PriorityQueue<TopPokemonDto> heap, TopPokemonDto pokemon, Comparator<TopPokemonDto> order) {
+        if (heap.size() < MAX_LIMIT) {
+            heap.add(pokemon);
+        } else if (order.compare(pokemon, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(pokemon);
+        }
+    }
+
+    private static List<TopPokemonDto> bestFirst(PriorityQueue<TopPokemonDto> heap, Comparator<TopPokemonDto> order) {
+        List<TopPokemonDto> ranked = new ArrayList<>(heap);
+        ranked.sort(order.reversed());
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private static final class Entry {
+        private final int pokemonId;
+        private final String name;
+        private final String type;
+        private final int reviewCount;
+        private final long starsTotal;
+
+        private Entry(LeaderboardRow row) {
+            this.pokemonId = row.getPokemonId();
+            this.name = row.getName();
+            this.type = row.getType();
+            this.reviewCount = row.getReviewCount();
+            this.starsTotal = row.getStarsTotal();
+        }
+    }
+
+    private static final class Ranking {
+        private final List<TopPokemonDto> overall;
+        private final Map<String, List<TopPokemonDto>> byType;
+        private final double meanStars;
+        private final Date refreshedAt;
+
+        private Ranking(List<TopPokemonDto> overall, Map<String, List<TopPokemonDto>> byType, double meanStars, Date refreshedAt) {
+            this.overall = overall;
+            this.byType = byType;
+            this.meanStars = meanStars;
+            this.refreshedAt = refreshedAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.pokemonreview.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+//times every public method of the controllers and services, and the two per-request steps of jwt authentication,
+//so a slow request can be pinned on the token parsing, the user lookup or the service call.
+//runs ahead of the transaction advice, so service timings include the commit
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MethodTimingAspect {
+
+    public static final String METRIC_NAME = "app.method";
+
+    private final MeterRegistry meterRegistry;
+
+    public MethodTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.pokemonreview.api.controllers..*)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "controller");
+    }
+
+    @Around("within(com.pokemonreview.api.service.impl..*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    @Around("execution(* com.pokemonreview.api.security.JWTGenerator.getClaimsFromJWT(..))" +
+            " || execution(* com.pokemonreview.api.security.CustomUserDetailsService.loadUserByUsername(..))")
+    public Object timeSecurity(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "security");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Time spent in controller, service and authentication methods")
+                    .tag("layer", layer)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pokemonreview.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+//a virtual thread that blocks inside synchronized code keeps its carrier thread, enough of those and every
+//request waits for a carrier. the jvm reports each occurrence as a jfr event, this counts and logs them
+public class PinnedThreadMonitor implements AutoCloseable {
+
+    public static final String METRIC_NAME = "jvm.threads.virtual.pinned";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private final RecordingStream stream = new RecordingStream();
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        Counter pinned = Counter.builder(METRIC_NAME)
+                .description("Virtual threads that blocked while pinned to their carrier for longer than the threshold")
+                .register(meterRegistry);
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned its carrier for {} ms at\n{}", event.getDuration().toMillis(),
+                    format(event.getStackTrace()));
+        });
+        stream.startAsync();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tunknown";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(RecordedFrame::getMethod)
+                .map(method -> "\t" + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.pokemonreview.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+//registered ahead of the security filters so the user lookup of the jwt filter is counted too,
+//statements run by async request processing happen on other threads and are not
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.sql";
+    public static final String HEADER_NAME = "X-SQL-Statement-Count";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeader;
+    private final int warnThreshold;
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry, boolean exposeHeader, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeader = exposeHeader;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, exposeHeader ? new CountHeaderResponse(response) : response);
+        } finally {
+            int count = SqlStatementCounter.count();
+            //the same uri template http.server.requests is tagged with, so the two line up
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements prepared while serving a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(count);
+            if (count > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements, more than the threshold of {}, look for an N+1 query",
+                        request.getMethod(), request.getRequestURI(), count, warnThreshold);
+            }
+            if (exposeHeader && !response.isCommitted()) {
+                response.setHeader(HEADER_NAME, String.valueOf(count));
+            }
+        }
+    }
+
+    //headers can no longer change once the body is written, so the count so far is set just before,
+    //with DTOs mapped in the services nothing is left to query by then
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+
+        CountHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setCountHeader();
+            super.flushBuffer();
+        }
+
+        private void setCountHeader() {
+            if (!isCommitted()) {
+                setHeader(HEADER_NAME, String.valueOf(SqlStatementCounter.count()));
+            }
+        }
+    }
+}
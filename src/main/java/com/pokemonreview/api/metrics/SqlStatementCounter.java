@@ -0,0 +1,23 @@
+package com.pokemonreview.api.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//counts the statements hibernate prepares on the current thread, like Statistics.getPrepareStatementCount but per thread
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,61 @@
+package com.pokemonreview.api.models;
+
+import com.pokemonreview.api.events.ChangeEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.util.Date;
+
+//written in the transaction of the change it records, see OutboxWriter
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_stream_position", columnList = "streamPosition", unique = true),
+        @Index(name = "idx_outbox_event_published_at", columnList = "publishedAt")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    //one value per row, taken when OutboxWriter saves it just before the commit. outbox_event_seq handed out
+    //blocks of 50 per instance, which say nothing about the order changes on different instances committed in
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_id_seq", allocationSize = 1)
+    private long id;
+
+    //the offset consumers read by, handed out by the relay in id order to the rows committed since its last run.
+    //a row takes its id just before its transaction commits, so two changes to the same pokemon or review, which
+    //wait on each other's row lock, get ids in commit order. a reader going by id could still pass a row of
+    //another transaction that took a lower id and commits later
+    private Long streamPosition;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private ChangeEventType type;
+
+    private int pokemonId;
+    private Integer reviewId;
+
+    //the pokemon or review as json, null for deletes
+    @Column(length = 4000)
+    private String payload;
+
+    private Date createdAt;
+
+    //set when the sink takes the row, the retention counts from here. rows go to the sink in offset order, a row
+    //can still be published long after it was created
+    private Date publishedAt;
+}
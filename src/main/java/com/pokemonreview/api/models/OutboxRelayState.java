@@ -0,0 +1,30 @@
+package com.pokemonreview.api.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+//a single row, locked by the relay for its whole run so only one instance hands out offsets at a time
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_relay")
+public class OutboxRelayState {
+    public static final int ID = 1;
+
+    @Id
+    private int id;
+    //the last offset handed out
+    private long assignedPosition;
+    //the last offset the sink accepted
+    private long publishedPosition;
+    //offsets up to this one were removed after the retention
+    private long prunedPosition;
+}
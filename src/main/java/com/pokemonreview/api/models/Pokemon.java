@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -14,13 +16,29 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pokemon")
+//the filtered listing only accepts what one of these can answer, see PokemonServiceImpl.SUPPORTED_FILTERS
+@Table(indexes = {
+        @Index(name = "idx_pokemon_name", columnList = "name"),
+        @Index(name = "idx_pokemon_type_id", columnList = "type, id"),
+        @Index(name = "idx_pokemon_type_name", columnList = "type, name, id")
+})
 public class Pokemon {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pokemon_seq")
+    @SequenceGenerator(name = "pokemon_seq", sequenceName = "pokemon_seq", allocationSize = 50)
     private int id;
+
+    //default for rows that predate the column
+    @Version
+    @Column(columnDefinition = "integer default 0")
+    private int version;
+
     private String name;
     private String type;
 
     @OneToMany(mappedBy = "pokemon", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pokemon-reviews")
     private List<Review> reviews = new ArrayList<Review>();
 }
@@ -0,0 +1,38 @@
+package com.pokemonreview.api.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "pokemon_rating", indexes = @Index(name = "idx_pokemon_rating_average", columnList = "averageStars, pokemonId"))
+public class PokemonRating {
+    @Id
+    private int pokemonId;
+    private int reviewCount;
+    private long starsTotal;
+    private int oneStar;
+    private int twoStars;
+    private int threeStars;
+    private int fourStars;
+    private int fiveStars;
+
+    //starsTotal / reviewCount kept as a column so the listing can filter and sort on it through an index
+    @Column(columnDefinition = "double precision default 0")
+    private double averageStars;
+
+    //bumped by every review mutation, tags the reviews listing of the pokemon
+    @Column(columnDefinition = "integer default 0")
+    private int version;
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -12,10 +14,20 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "review")
+@Table(indexes = @Index(name = "idx_review_pokemon_id_id", columnList = "pokemon_id, id"))
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "review_seq", allocationSize = 50)
     private int id;
+
+    //default for rows that predate the column
+    @Version
+    @Column(columnDefinition = "integer default 0")
+    private int version;
+
     private String title;
     private String content;
     private int stars;
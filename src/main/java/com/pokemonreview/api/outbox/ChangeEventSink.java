@@ -0,0 +1,13 @@
+package com.pokemonreview.api.outbox;
+
+import com.pokemonreview.api.dto.ChangeEventDto;
+
+import java.util.List;
+
+//where the relay passes the change stream on to, in offset order. a sink that throws gets the same events again
+//on the next run, and one that fails after taking them may see them twice, consumers go by the offset
+@FunctionalInterface
+public interface ChangeEventSink {
+
+    void publish(List<ChangeEventDto> events);
+}
@@ -0,0 +1,39 @@
+package com.pokemonreview.api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pokemonreview.api.dto.ChangeEventDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+//appends one json line per event, the same shape GET /api/changes returns
+public class FileChangeEventSink implements ChangeEventSink {
+
+    private final Path path;
+    private final ObjectWriter writer;
+
+    public FileChangeEventSink(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.writer = objectMapper.writerFor(ChangeEventDto.class);
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEventDto> events) {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChangeEventDto event : events) {
+                out.write(writer.writeValueAsString(event));
+                out.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append the change events to " + path, ex);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pokemonreview.api.outbox;
+
+import com.pokemonreview.api.dto.ChangeEventDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//keeps everything it is given, meant for tests and local runs
+public class InMemoryChangeEventSink implements ChangeEventSink {
+
+    private final List<ChangeEventDto> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<ChangeEventDto> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<ChangeEventDto> events() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
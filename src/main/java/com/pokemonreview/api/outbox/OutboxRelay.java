@@ -0,0 +1,115 @@
+package com.pokemonreview.api.outbox;
+
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.models.OutboxEvent;
+import com.pokemonreview.api.models.OutboxRelayState;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import com.pokemonreview.api.repository.OutboxRelayStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//turns the outbox into the change stream: hands out offsets to the rows committed since the last run, in id
+//order, then passes everything the sink has not taken yet on to it. both happen under the lock of the one state
+//row, so with several instances running only one relays at a time and the offsets have no gaps. published rows
+//are removed once they were published longer ago than the retention
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayStateRepository outboxRelayStateRepository;
+    private final ChangeEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxRelayStateRepository outboxRelayStateRepository,
+                       ChangeEventSink sink, PlatformTransactionManager transactionManager, int batchSize, Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelayStateRepository = outboxRelayStateRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:PT1S}",
+            initialDelayString = "${app.outbox.relay-interval:PT1S}")
+    public synchronized void relay() {
+        try {
+            //a full batch means more are waiting, they go out now rather than on the next run
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed >= batchSize);
+            transactionTemplate.executeWithoutResult(status -> prune());
+        } catch (RuntimeException ex) {
+            //the batch rolled back with its offsets, the same events are relayed again on the next run
+            log.warn("Could not relay the outbox", ex);
+        }
+    }
+
+    public static ChangeEventDto mapToDto(OutboxEvent outboxEvent) {
+        ChangeEventDto changeEventDto = new ChangeEventDto();
+        changeEventDto.setOffset(outboxEvent.getStreamPosition());
+        changeEventDto.setType(outboxEvent.getType());
+        changeEventDto.setPokemonId(outboxEvent.getPokemonId());
+        changeEventDto.setReviewId(outboxEvent.getReviewId());
+        changeEventDto.setPayload(outboxEvent.getPayload());
+        changeEventDto.setCreatedAt(outboxEvent.getCreatedAt());
+        return changeEventDto;
+    }
+
+    private int relayBatch() {
+        OutboxRelayState state = lockState();
+
+        List<OutboxEvent> unassigned = outboxEventRepository.findByStreamPositionIsNullOrderById(PageRequest.of(0, batchSize));
+        long position = state.getAssignedPosition();
+        for (OutboxEvent outboxEvent : unassigned) {
+            outboxEvent.setStreamPosition(++position);
+        }
+        state.setAssignedPosition(position);
+
+        //the sink is called with the lock held, an instance that fails here leaves the events to the next run
+        List<OutboxEvent> unpublished = outboxEventRepository.findByStreamPositionGreaterThanOrderByStreamPosition(
+                state.getPublishedPosition(), PageRequest.of(0, batchSize));
+        if (!unpublished.isEmpty()) {
+            sink.publish(unpublished.stream().map(OutboxRelay::mapToDto).collect(Collectors.toList()));
+            Date publishedAt = new Date();
+            for (OutboxEvent outboxEvent : unpublished) {
+                outboxEvent.setPublishedAt(publishedAt);
+            }
+            state.setPublishedPosition(unpublished.get(unpublished.size() - 1).getStreamPosition());
+        }
+        return Math.max(unassigned.size(), unpublished.size());
+    }
+
+    private void prune() {
+        OutboxRelayState state = lockState();
+        Date since = new Date(System.currentTimeMillis() - retention.toMillis());
+        //consumers lose everything below the first row still inside the retention, never a row in the middle of
+        //the stream, even when the clocks of two instances disagree about the order the rows were published in
+        long position = outboxEventRepository.findFirstPositionPublishedSince(since)
+                .map(first -> first - 1)
+                .orElse(state.getPublishedPosition());
+        if (position > state.getPrunedPosition()) {
+            outboxEventRepository.deleteThrough(position);
+            state.setPrunedPosition(position);
+        }
+    }
+
+    //the row is created by the first run, an instance racing it fails on the primary key and retries next run
+    private OutboxRelayState lockState() {
+        return outboxRelayStateRepository.findForUpdate(OutboxRelayState.ID)
+                .orElseGet(() -> outboxRelayStateRepository.saveAndFlush(new OutboxRelayState(OutboxRelayState.ID, 0, 0, 0)));
+    }
+}
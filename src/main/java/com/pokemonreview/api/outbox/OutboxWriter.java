@@ -0,0 +1,67 @@
+package com.pokemonreview.api.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.events.ChangeEventType;
+import com.pokemonreview.api.events.PokemonDeletedEvent;
+import com.pokemonreview.api.events.PokemonSavedEvent;
+import com.pokemonreview.api.events.ReviewDeletedEvent;
+import com.pokemonreview.api.events.ReviewSavedEvent;
+import com.pokemonreview.api.models.OutboxEvent;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+
+//appends a row to the outbox for every change the services publish. before commit still runs inside their
+//transaction, so the row commits or rolls back with the change it records, the relay passes it on from there
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPokemonSaved(PokemonSavedEvent event) {
+        append(ChangeEventType.POKEMON_SAVED, event.getPokemonId(), null, event.getPokemon());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPokemonDeleted(PokemonDeletedEvent event) {
+        append(ChangeEventType.POKEMON_DELETED, event.getPokemonId(), null, null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReviewSaved(ReviewSavedEvent event) {
+        append(ChangeEventType.REVIEW_SAVED, event.getPokemonId(), event.getReview().getId(), event.getReview());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        append(ChangeEventType.REVIEW_DELETED, event.getPokemonId(), event.getReviewId(), null);
+    }
+
+    private void append(ChangeEventType type, int pokemonId, Integer reviewId, Object payload) {
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .type(type)
+                .pokemonId(pokemonId)
+                .reviewId(reviewId)
+                .payload(payload == null ? null : toJson(payload))
+                .createdAt(new Date())
+                .build();
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not write the change event", ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.pokemonreview.api.repository;
+
+public interface CatalogRow {
+    int getPokemonId();
+    String getName();
+    String getType();
+    Integer getReviewId();
+    String getTitle();
+    String getContent();
+    Integer getStars();
+}
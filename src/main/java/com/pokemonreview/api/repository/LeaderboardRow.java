@@ -0,0 +1,9 @@
+package com.pokemonreview.api.repository;
+
+public interface LeaderboardRow {
+    int getPokemonId();
+    String getName();
+    String getType();
+    int getReviewCount();
+    long getStarsTotal();
+}
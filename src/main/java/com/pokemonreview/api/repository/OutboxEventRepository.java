@@ -0,0 +1,26 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByStreamPositionIsNullOrderById(Pageable pageable);
+
+    List<OutboxEvent> findByStreamPositionGreaterThanOrderByStreamPosition(long after, Pageable pageable);
+
+    @Query("select min(e.streamPosition) from OutboxEvent e where e.publishedAt >= :since")
+    Optional<Long> findFirstPositionPublishedSince(@Param("since") Date since);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.streamPosition <= :position")
+    int deleteThrough(@Param("position") long position);
+}
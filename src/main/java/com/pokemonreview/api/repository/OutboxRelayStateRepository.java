@@ -0,0 +1,17 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.OutboxRelayState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface OutboxRelayStateRepository extends JpaRepository<OutboxRelayState, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from OutboxRelayState s where s.id = :id")
+    Optional<OutboxRelayState> findForUpdate(@Param("id") int id);
+}
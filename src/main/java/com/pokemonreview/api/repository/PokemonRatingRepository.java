@@ -0,0 +1,71 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.PokemonRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PokemonRatingRepository extends JpaRepository<PokemonRating, Integer> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PokemonRating r set r.reviewCount = r.reviewCount + :reviewCount, r.starsTotal = r.starsTotal + :starsTotal, " +
+            "r.oneStar = r.oneStar + :oneStar, r.twoStars = r.twoStars + :twoStars, r.threeStars = r.threeStars + :threeStars, " +
+            "r.fourStars = r.fourStars + :fourStars, r.fiveStars = r.fiveStars + :fiveStars, r.version = r.version + 1, " +
+            "r.averageStars = coalesce((r.starsTotal + :starsTotal) * 1.0 / nullif(r.reviewCount + :reviewCount, 0), 0) " +
+            "where r.pokemonId = :pokemonId")
+    int applyDelta(@Param("pokemonId") int pokemonId, @Param("reviewCount") int reviewCount, @Param("starsTotal") long starsTotal,
+                   @Param("oneStar") int oneStar, @Param("twoStars") int twoStars, @Param("threeStars") int threeStars,
+                   @Param("fourStars") int fourStars, @Param("fiveStars") int fiveStars);
+
+    //every pokemon gets its row in the transaction that creates it, so reviews, which need the pokemon committed,
+    //always find one to update. hql rather than native sql, which would empty every second-level cache region
+    @Modifying(flushAutomatically = true)
+    @Query("insert into PokemonRating (pokemonId, reviewCount, starsTotal, oneStar, twoStars, threeStars, fourStars, " +
+            "fiveStars, averageStars, version) select p.id, 0, 0L, 0, 0, 0, 0, 0, 0.0, 0 from Pokemon p where p.id in :pokemonIds")
+    int insertEmpty(@Param("pokemonIds") Collection<Integer> pokemonIds);
+
+    //for pokemon that predate the rating table, counted from their reviews
+    @Transactional
+    @Modifying
+    @Query("insert into PokemonRating (pokemonId, reviewCount, starsTotal, oneStar, twoStars, threeStars, fourStars, " +
+            "fiveStars, averageStars, version) " +
+            "select p.id, cast(count(r.id) as integer), coalesce(sum(r.stars), 0L), " +
+            "cast(coalesce(sum(case when r.stars = 1 then 1 else 0 end), 0) as integer), " +
+            "cast(coalesce(sum(case when r.stars = 2 then 1 else 0 end), 0) as integer), " +
+            "cast(coalesce(sum(case when r.stars = 3 then 1 else 0 end), 0) as integer), " +
+            "cast(coalesce(sum(case when r.stars = 4 then 1 else 0 end), 0) as integer), " +
+            "cast(coalesce(sum(case when r.stars = 5 then 1 else 0 end), 0) as integer), " +
+            "cast(coalesce(sum(r.stars) * 1.0 / nullif(count(r.id), 0), 0) as double), 0 " +
+            "from Pokemon p left join p.reviews r " +
+            "where not exists (select 1 from PokemonRating pr where pr.pokemonId = p.id) group by p.id")
+    int insertMissing();
+
+    @Query("select r.version from PokemonRating r where r.pokemonId = :pokemonId")
+    Optional<Integer> findVersionByPokemonId(@Param("pokemonId") int pokemonId);
+
+    void deleteByPokemonId(int pokemonId);
+
+    //rows written before the column existed read 0, a rated pokemon can never average that
+    @Transactional
+    @Modifying
+    @Query("update PokemonRating r set r.averageStars = r.starsTotal * 1.0 / r.reviewCount where r.reviewCount > 0 and r.averageStars = 0")
+    int fillMissingAverageStars();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select p.id as pokemonId, p.name as name, p.type as type, r.reviewCount as reviewCount, r.starsTotal as starsTotal " +
+            "from Pokemon p, PokemonRating r where r.pokemonId = p.id and r.reviewCount > 0")
+    Stream<LeaderboardRow> streamLeaderboardRows();
+
+    @Query("select p.id as pokemonId, p.name as name, p.type as type, r.reviewCount as reviewCount, r.starsTotal as starsTotal " +
+            "from Pokemon p, PokemonRating r where r.pokemonId = p.id and r.reviewCount > 0 and p.id in :ids")
+    List<LeaderboardRow> findLeaderboardRows(@Param("ids") Collection<Integer> ids);
+}
@@ -1,10 +1,39 @@
 package com.pokemonreview.api.repository;
 
 import com.pokemonreview.api.models.Pokemon;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PokemonRepository extends JpaRepository<Pokemon, Integer> {
-    Optional<Pokemon> findByType(String type);
+public interface PokemonRepository extends JpaRepository<Pokemon, Integer>, JpaSpecificationExecutor<Pokemon> {
+    List<Pokemon> findByType(String type);
+
+    List<Pokemon> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+
+    List<Pokemon> findByNameIn(Collection<String> names);
+
+    @Query("select p.id as id, p.version as version from Pokemon p")
+    Page<VersionRow> findVersions(Pageable pageable);
+
+    @Query("select p.id as id, p.version as version from Pokemon p where p.id > :id order by p.id")
+    List<VersionRow> findVersionsByIdGreaterThan(@Param("id") int id, Pageable pageable);
+
+    @Query("select p.id from Pokemon p where p.id in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select p.id as pokemonId, p.name as name, p.type as type, " +
+            "r.id as reviewId, r.title as title, r.content as content, r.stars as stars " +
+            "from Pokemon p left join p.reviews r order by p.id, r.id")
+    Stream<CatalogRow> streamCatalog();
 }
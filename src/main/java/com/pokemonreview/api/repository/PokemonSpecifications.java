@@ -0,0 +1,65 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.PokemonRating;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PokemonSpecifications {
+
+    public enum SortKey { ID, NAME, RATING }
+
+    private PokemonSpecifications() {
+    }
+
+    //filters and ordering in one query, the ordering is set here because the rating lives on a second root
+    //that a Pageable sort cannot reach. count queries drop the ordering again
+    public static Specification<Pokemon> listing(String type, String namePrefix, Double minRating,
+                                                 SortKey sortKey, boolean descending) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            List<Order> orders = new ArrayList<>();
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (namePrefix != null) {
+                predicates.add(cb.like(root.get("name"), escapeLike(namePrefix) + "%", '\\'));
+            }
+
+            Root<PokemonRating> rating = null;
+            if (minRating != null || sortKey == SortKey.RATING) {
+                //unrelated entities, joined through the shared id, which the criteria api can only do as an inner
+                //join. so only reviewed pokemon are listed: those never reviewed have no rating row, and those whose
+                //reviews were all deleted keep one with no reviews, left out here as well
+                rating = query.from(PokemonRating.class);
+                predicates.add(cb.equal(rating.get("pokemonId"), root.get("id")));
+                predicates.add(cb.greaterThan(rating.get("reviewCount"), 0));
+            }
+            if (minRating != null) {
+                predicates.add(cb.greaterThanOrEqualTo(rating.get("averageStars"), minRating));
+            }
+
+            if (sortKey == SortKey.RATING) {
+                orders.add(descending ? cb.desc(rating.get("averageStars")) : cb.asc(rating.get("averageStars")));
+                orders.add(descending ? cb.desc(rating.get("pokemonId")) : cb.asc(rating.get("pokemonId")));
+            } else {
+                if (sortKey == SortKey.NAME) {
+                    orders.add(descending ? cb.desc(root.get("name")) : cb.asc(root.get("name")));
+                }
+                orders.add(descending ? cb.desc(root.get("id")) : cb.asc(root.get("id")));
+            }
+
+            query.orderBy(orders);
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,11 +1,29 @@
 package com.pokemonreview.api.repository;
 
 import com.pokemonreview.api.models.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
-    List<Review> findByPokemonId(int pokemonId);
+    List<Review> findByPokemonId(int pokemonId, Pageable pageable);
+
+    Optional<Review> findByIdAndPokemonId(int id, int pokemonId);
+
+    List<Review> findByPokemonIdAndIdGreaterThanOrderByIdAsc(int pokemonId, int id, Pageable pageable);
+
+    @Query("select r.stars, count(r) from Review r where r.pokemon.id = :pokemonId group by r.stars")
+    List<Object[]> countStarsByPokemonId(@Param("pokemonId") int pokemonId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select r.id as id, r.pokemon.id as pokemonId, r.title as title, r.content as content from Review r")
+    Stream<ReviewSearchRow> streamSearchRows();
 }
@@ -0,0 +1,8 @@
+package com.pokemonreview.api.repository;
+
+public interface ReviewSearchRow {
+    int getId();
+    int getPokemonId();
+    String getTitle();
+    String getContent();
+}
@@ -0,0 +1,6 @@
+package com.pokemonreview.api.repository;
+
+public interface VersionRow {
+    int getId();
+    int getVersion();
+}
@@ -0,0 +1,210 @@
+package com.pokemonreview.api.search;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.PokemonDeletedEvent;
+import com.pokemonreview.api.events.ReviewDeletedEvent;
+import com.pokemonreview.api.events.ReviewSavedEvent;
+import com.pokemonreview.api.exceptions.InvalidSearchQueryException;
+import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.repository.ReviewSearchRow;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+//an inverted index over review titles and content, rebuilt from the database on startup and then kept up to
+//date from the events the review and pokemon services publish, once their transaction has committed.
+//every instance of the api holds its own, so it only sees the writes that instance served
+public class ReviewSearchIndex implements SmartInitializingSingleton, AutoCloseable {
+
+    static final String ID = "id";
+    static final String POKEMON_ID = "pokemonId";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 2f, CONTENT, 1f);
+    //searches see a change within this many seconds, a refresh costs too much to run on every write
+    private static final double MAX_STALE_SECONDS = 1.0;
+    private static final double MIN_STALE_SECONDS = 0.025;
+    private static final Logger log = LoggerFactory.getLogger(ReviewSearchIndex.class);
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Path path;
+    private final boolean temporary;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    //without a path the index goes to a temporary directory that is removed again on close
+    public ReviewSearchIndex(ReviewRepository reviewRepository, PlatformTransactionManager transactionManager, Path path) {
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        try {
+            this.temporary = path == null;
+            this.path = temporary ? Files.createTempDirectory("review-index") : Files.createDirectories(path);
+            this.directory = FSDirectory.open(this.path);
+            //rebuilt on startup anyway, whatever a previous run left behind is dropped
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the review index", ex);
+        }
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, MAX_STALE_SECONDS, MIN_STALE_SECONDS);
+        this.reopenThread.setName("review-index-refresh");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+    }
+
+    //runs before the web server starts, so no write can interleave with the rebuild
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        int count = transactionTemplate.execute(status -> {
+            try (Stream<ReviewSearchRow> rows = reviewRepository.streamSearchRows()) {
+                writer.deleteAll();
+                int indexed = 0;
+                Iterator<ReviewSearchRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    ReviewSearchRow row = iterator.next();
+                    writer.addDocument(document(row.getId(), row.getPokemonId(), row.getTitle(), row.getContent()));
+                    indexed++;
+                }
+                writer.commit();
+                return indexed;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not rebuild the review index", ex);
+            }
+        });
+        refresh();
+        log.info("Indexed {} reviews in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //the ids of the best matching reviews, best first. every word has to appear in the title or the content
+    public List<Integer> search(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidSearchQueryException("Search query must not be empty");
+        }
+        Query query;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{TITLE, CONTENT}, analyzer, BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            //taken as plain words, the lucene query syntax is not part of the api
+            query = parser.parse(QueryParser.escape(text));
+        } catch (ParseException | IndexSearcher.TooManyClauses ex) {
+            throw new InvalidSearchQueryException("Search query could not be parsed");
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<Integer> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Integer.parseInt(storedFields.document(scoreDoc.doc, Set.of(ID)).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IndexSearcher.TooManyClauses ex) {
+            throw new InvalidSearchQueryException("Search query has too many words");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not search the review index", ex);
+        }
+    }
+
+    //makes every change so far visible to searches, without waiting for the background refresh
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not refresh the review index", ex);
+        }
+    }
+
+    //after commit, so a rolled back write never shows up in the results
+    @TransactionalEventListener
+    public void onReviewSaved(ReviewSavedEvent event) throws IOException {
+        ReviewDto review = event.getReview();
+        writer.updateDocument(new Term(ID, String.valueOf(review.getId())),
+                document(review.getId(), event.getPokemonId(), review.getTitle(), review.getContent()));
+    }
+
+    @TransactionalEventListener
+    public void onReviewDeleted(ReviewDeletedEvent event) throws IOException {
+        writer.deleteDocuments(new Term(ID, String.valueOf(event.getReviewId())));
+    }
+
+    @TransactionalEventListener
+    public void onPokemonDeleted(PokemonDeletedEvent event) throws IOException {
+        writer.deleteDocuments(new Term(POKEMON_ID, String.valueOf(event.getPokemonId())));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        if (temporary) {
+            FileSystemUtils.deleteRecursively(path);
+        }
+    }
+
+    private Document document(int id, int pokemonId, String title, String content) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        document.add(new StringField(POKEMON_ID, String.valueOf(pokemonId), Field.Store.NO));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.NO));
+        }
+        if (content != null) {
+            document.add(new TextField(CONTENT, content, Field.Store.NO));
+        }
+        return document;
+    }
+}
@@ -1,8 +1,12 @@
 package com.pokemonreview.api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.pokemonreview.api.models.Role;
 import com.pokemonreview.api.models.UserEntity;
 import com.pokemonreview.api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,20 +18,38 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomUserDetailsService  implements UserDetailsService {
 
     private UserRepository userRepository;
+    private Cache<String, UserDetails> userDetailsCache;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(SecurityConstants.USER_DETAILS_CACHE_MAXIMUM_SIZE)
+                .expireAfterWrite(SecurityConstants.USER_DETAILS_CACHE_TTL, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails user = userDetailsCache.get(username, this::loadUserFromRepository);
+        //hand out a copy, the authentication manager erases the password of the instance it gets
+        return new User(user.getUsername(), user.getPassword(), user.getAuthorities());
+    }
+
+    public void evictUser(String username) {
+        userDetailsCache.invalidate(username);
+    }
+
+    private UserDetails loadUserFromRepository(String username) {
         UserEntity user = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("Username not found"));
         return new User(user.getUsername(), user.getPassword(), mapRolesToAuthorities(user.getRoles()));
     }
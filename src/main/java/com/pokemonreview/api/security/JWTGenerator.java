@@ -1,7 +1,19 @@
 package com.pokemonreview.api.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
@@ -9,34 +21,98 @@ import java.security.Key;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JWTGenerator {
 	//private static final KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.RS256);
 	private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+	private static final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+	private static final String AUTHORITIES_CLAIM = "roles";
+
+	// When set, role names are signed into the token and the filter trusts them instead of looking the user up.
+	@Value("${app.security.jwt.embed-authorities:false}")
+	private boolean embedAuthorities;
+
+	// Verified claims keyed by a SHA-256 digest of the token, each entry living until the token's own exp.
+	private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+			.maximumSize(SecurityConstants.JWT_CACHE_MAXIMUM_SIZE)
+			.expireAfter(new Expiry<String, Claims>() {
+				@Override
+				public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+					return TimeUnit.MILLISECONDS.toNanos(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+				}
+
+				@Override
+				public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+					return currentDuration;
+				}
+
+				@Override
+				public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+					return currentDuration;
+				}
+			})
+			.build();
 	
 	public String generateToken(Authentication authentication) {
 		String username = authentication.getName();
 		Date currentDate = new Date();
 		Date expireDate = new Date(currentDate.getTime() + SecurityConstants.JWT_EXPIRATION);
 		
-		String token = Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
 				.setSubject(username)
 				.setIssuedAt( new Date())
-				.setExpiration(expireDate)
+				.setExpiration(expireDate);
+		if (embedAuthorities) {
+			builder.claim(AUTHORITIES_CLAIM, authentication.getAuthorities().stream()
+					.map(GrantedAuthority::getAuthority)
+					.collect(Collectors.toList()));
+		}
+		String token = builder
 				.signWith(key,SignatureAlgorithm.HS512)
 				.compact();
 		System.out.println("New token :");
 		System.out.println(token);
 		return token;
 	}
+
+	public Claims getClaimsFromJWT(String token) {
+		String digest = digest(token);
+		Claims claims = verifiedTokens.getIfPresent(digest);
+		if (claims != null) {
+			return claims;
+		}
+		try {
+			claims = parser.parseClaimsJws(token).getBody();
+		} catch (Exception ex) {
+			throw new AuthenticationCredentialsNotFoundException("JWT was exprired or incorrect",ex.fillInStackTrace());
+		}
+		if (claims.getExpiration() != null) {
+			verifiedTokens.put(digest, claims);
+		}
+		return claims;
+	}
+
+	public boolean isEmbedAuthorities() {
+		return embedAuthorities;
+	}
+
+	public List<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+		List<?> roles = claims.get(AUTHORITIES_CLAIM, List.class);
+		if (roles == null) {
+			return null;
+		}
+		return roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).collect(Collectors.toList());
+	}
+
 	public String getUsernameFromJWT(String token){
-		Claims claims = Jwts.parserBuilder()
-				.setSigningKey(key)
-				.build()
+		Claims claims = parser
 				.parseClaimsJws(token)
 				.getBody();
 		return claims.getSubject();
@@ -44,14 +120,20 @@ public class JWTGenerator {
 	
 	public boolean validateToken(String token) {
 		try {
-			Jwts.parserBuilder()
-			.setSigningKey(key)
-			.build()
-			.parseClaimsJws(token);
+			parser.parseClaimsJws(token);
 			return true;
 		} catch (Exception ex) {
 			throw new AuthenticationCredentialsNotFoundException("JWT was exprired or incorrect",ex.fillInStackTrace());
 		}
 	}
 
+	private String digest(String token) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 }
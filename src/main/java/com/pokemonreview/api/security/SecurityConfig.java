@@ -42,6 +42,8 @@ public class SecurityConfig {
                 .and()
                 .authorizeRequests()
                 .antMatchers("/api/auth/**").permitAll()
+                //for the scraper and the load balancer, which have no login. /actuator/metrics stays behind one
+                .antMatchers(HttpMethod.GET, "/actuator/prometheus", "/actuator/health/**").permitAll()
                 .anyRequest().authenticated()
                 .and()
                 .httpBasic();
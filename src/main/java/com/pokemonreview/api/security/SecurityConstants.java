@@ -2,4 +2,7 @@ package com.pokemonreview.api.security;
 
 public class SecurityConstants {
     public static final long JWT_EXPIRATION = 70000;
+    public static final long JWT_CACHE_MAXIMUM_SIZE = 10000;
+    public static final long USER_DETAILS_CACHE_MAXIMUM_SIZE = 10000;
+    public static final long USER_DETAILS_CACHE_TTL = 300000;
 }
@@ -0,0 +1,7 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.ChangeEventResponse;
+
+public interface ChangeEventService {
+    ChangeEventResponse getChanges(long after, int limit);
+}
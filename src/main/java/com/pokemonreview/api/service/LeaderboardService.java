@@ -0,0 +1,7 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.TopPokemonResponse;
+
+public interface LeaderboardService {
+    TopPokemonResponse getTopPokemon(String type, int limit);
+}
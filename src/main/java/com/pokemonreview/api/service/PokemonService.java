@@ -1,14 +1,24 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.dto.BulkResponse;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonFilter;
 import com.pokemonreview.api.dto.PokemonResponse;
 
 import java.util.List;
 
 public interface PokemonService {
     PokemonDto createPokemon(PokemonDto pokemonDto);
+    BulkResponse upsertPokemon(List<PokemonDto> pokemonDtos);
     PokemonResponse getAllPokemon(int pageNo, int pageSize);
+    PokemonResponse getAllPokemon(String after, int pageSize, boolean includeTotal);
+    PokemonResponse getAllPokemon(PokemonFilter filter, int pageNo, int pageSize);
+    String getPokemonListVersionTag(int pageNo, int pageSize);
+    String getPokemonListVersionTag(String after, int pageSize, boolean includeTotal);
+    String getPokemonListVersionTag(PokemonFilter filter, PokemonResponse page);
     PokemonDto getPokemonById(int id);
+    String getPokemonVersionTag(PokemonDto pokemon);
     PokemonDto updatePokemon(PokemonDto pokemonDto, int id);
+    PokemonDto updatePokemon(PokemonDto pokemonDto, int id, String ifMatch);
     void deletePokemonId(int id);
 }
@@ -0,0 +1,10 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import reactor.core.publisher.Flux;
+
+public interface PokemonStreamService {
+    Flux<PokemonDto> streamPokemon(int afterId, Integer limit);
+    Flux<ReviewDto> streamReviewsByPokemonId(int pokemonId);
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.ReviewDto;
+
+public interface ReviewQueueService {
+    QueuedReviewDto queueReview(int pokemonId, ReviewDto reviewDto);
+    QueuedReviewDto getQueuedReview(String trackingId);
+}
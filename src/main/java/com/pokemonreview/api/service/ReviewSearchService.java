@@ -0,0 +1,9 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.ReviewSearchHit;
+
+import java.util.List;
+
+public interface ReviewSearchService {
+    List<ReviewSearchHit> searchReviews(String query, int limit);
+}
@@ -1,13 +1,23 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonRatingDto;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewResponse;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ReviewService {
     ReviewDto createReview(int pokemonId, ReviewDto reviewDto);
+    BulkResponse createReviews(Map<Integer, List<ReviewDto>> reviewsByPokemonId);
     List<ReviewDto> getReviewsByPokemonId(int id);
+    String getReviewsVersionTag(int pokemonId);
+    ReviewResponse getReviewsByPokemonId(int id, String after, int limit);
     ReviewDto getReviewById(int reviewId, int pokemonId);
+    String getReviewVersionTag(ReviewDto review);
     ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto);
+    ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto, String ifMatch);
     void deleteReview(int pokemonId, int reviewId);
+    PokemonRatingDto getRatingByPokemonId(int pokemonId);
 }
@@ -0,0 +1,56 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.exceptions.ChangeOffsetExpiredException;
+import com.pokemonreview.api.exceptions.InvalidCursorException;
+import com.pokemonreview.api.models.OutboxRelayState;
+import com.pokemonreview.api.outbox.OutboxRelay;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import com.pokemonreview.api.repository.OutboxRelayStateRepository;
+import com.pokemonreview.api.service.ChangeEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ChangeEventServiceImpl implements ChangeEventService {
+    private static final int MAX_LIMIT = 1000;
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxRelayStateRepository outboxRelayStateRepository;
+
+    @Autowired
+    public ChangeEventServiceImpl(OutboxEventRepository outboxEventRepository, OutboxRelayStateRepository outboxRelayStateRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelayStateRepository = outboxRelayStateRepository;
+    }
+
+    //only events the relay gave an offset are returned, a consumer that resumes from the last offset it saw
+    //misses nothing and sees nothing twice
+    @Override
+    public ChangeEventResponse getChanges(long after, int limit) {
+        if (after < 0) {
+            throw new InvalidCursorException("Offset must not be negative");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<ChangeEventDto> content = outboxEventRepository.findByStreamPositionGreaterThanOrderByStreamPosition(after, PageRequest.of(0, size))
+                .stream().map(OutboxRelay::mapToDto).collect(Collectors.toList());
+
+        //checked after the read, the pruned offset only grows, so if it is still behind the consumer nothing it
+        //should have seen was removed before the read either
+        long pruned = outboxRelayStateRepository.findById(OutboxRelayState.ID).map(OutboxRelayState::getPrunedPosition).orElse(0L);
+        if (after < pruned) {
+            throw new ChangeOffsetExpiredException("Changes after offset " + after + " are no longer kept, read the current state and continue from offset " + pruned);
+        }
+
+        ChangeEventResponse response = new ChangeEventResponse();
+        response.setContent(content);
+        response.setNextOffset(content.isEmpty() ? after : content.get(content.size() - 1).getOffset());
+        return response;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pokemonreview.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pokemonreview.api.dto.PokemonExportDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.repository.CatalogRow;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+    private PokemonRepository pokemonRepository;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportServiceImpl(PokemonRepository pokemonRepository, ObjectMapper objectMapper) {
+        this.pokemonRepository = pokemonRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    //rows arrive ordered by pokemon, so only the pokemon being written is ever held in memory
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCatalog(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<CatalogRow> rows = pokemonRepository.streamCatalog();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            PokemonExportDto current = null;
+            Iterator<CatalogRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CatalogRow row = iterator.next();
+                if (current == null || current.getId() != row.getPokemonId()) {
+                    if (current != null) {
+                        writeLine(writer, generator, current);
+                    }
+                    current = new PokemonExportDto(row.getPokemonId(), row.getName(), row.getType(), new ArrayList<>());
+                }
+                if (row.getReviewId() != null) {
+                    current.getReviews().add(ReviewDto.builder().id(row.getReviewId()).title(row.getTitle())
+                            .content(row.getContent()).stars(row.getStars()).build());
+                }
+            }
+            if (current != null) {
+                writeLine(writer, generator, current);
+            }
+        }
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, PokemonExportDto pokemon) throws IOException {
+        writer.writeValue(generator, pokemon);
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,24 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(int id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static int decode(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Cursor is not valid");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.TopPokemonResponse;
+import com.pokemonreview.api.leaderboard.PokemonLeaderboard;
+import com.pokemonreview.api.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private PokemonLeaderboard pokemonLeaderboard;
+
+    @Autowired
+    public LeaderboardServiceImpl(PokemonLeaderboard pokemonLeaderboard) {
+        this.pokemonLeaderboard = pokemonLeaderboard;
+    }
+
+    //answered from memory without touching the database, as of the last refresh
+    @Override
+    public TopPokemonResponse getTopPokemon(String type, int limit) {
+        int size = Math.max(1, Math.min(limit, PokemonLeaderboard.MAX_LIMIT));
+
+        TopPokemonResponse response = new TopPokemonResponse();
+        response.setContent(pokemonLeaderboard.top(type == null || type.isBlank() ? null : type, size));
+        response.setMeanStars(pokemonLeaderboard.meanStars());
+        response.setRefreshedAt(pokemonLeaderboard.refreshedAt());
+        return response;
+    }
+}
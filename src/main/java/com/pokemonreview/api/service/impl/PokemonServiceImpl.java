@@ -1,48 +1,205 @@
 package com.pokemonreview.api.service.impl;
 
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonFilter;
 import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.events.PokemonDeletedEvent;
+import com.pokemonreview.api.events.PokemonSavedEvent;
+import com.pokemonreview.api.exceptions.InvalidFilterException;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.PreconditionFailedException;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
 import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.PokemonSpecifications;
+import com.pokemonreview.api.repository.PokemonSpecifications.SortKey;
+import com.pokemonreview.api.repository.VersionRow;
 import com.pokemonreview.api.service.PokemonService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 public class PokemonServiceImpl implements PokemonService {
+    private static final int MAX_PAGE_SIZE = 100;
+    //keeps the name lookup well under the bind parameter limit of postgres
+    private static final int NAME_LOOKUP_CHUNK = 1000;
+    //per sort key, the filter combinations an index answers in that order: id by the primary key and
+    //idx_pokemon_type_id, name by idx_pokemon_name and idx_pokemon_type_name, rating by idx_pokemon_rating_average.
+    //anything else would scan and sort the whole table on every page, so it is refused instead
+    private static final Map<SortKey, List<Set<String>>> SUPPORTED_FILTERS = Map.of(
+            SortKey.ID, List.of(Set.of(), Set.of("type")),
+            SortKey.NAME, List.of(Set.of(), Set.of("name"), Set.of("type"), Set.of("type", "name")),
+            SortKey.RATING, List.of(Set.of(), Set.of("minRating")));
+
     private PokemonRepository pokemonRepository;
+    private PokemonRatingRepository pokemonRatingRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public PokemonServiceImpl(PokemonRepository pokemonRepository) {
+    public PokemonServiceImpl(PokemonRepository pokemonRepository, PokemonRatingRepository pokemonRatingRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.pokemonRepository = pokemonRepository;
+        this.pokemonRatingRepository = pokemonRatingRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public PokemonDto createPokemon(PokemonDto pokemonDto) {
         Pokemon pokemon = new Pokemon();
         pokemon.setName(pokemonDto.getName());
         pokemon.setType(pokemonDto.getType());
 
         Pokemon newPokemon = pokemonRepository.save(pokemon);
+        pokemonRatingRepository.insertEmpty(List.of(newPokemon.getId()));
 
         PokemonDto pokemonResponse = new PokemonDto();
         pokemonResponse.setId(newPokemon.getId());
         pokemonResponse.setName(newPokemon.getName());
         pokemonResponse.setType(newPokemon.getType());
+        eventPublisher.publishEvent(new PokemonSavedEvent(newPokemon.getId(), pokemonResponse));
         return pokemonResponse;
     }
 
+    @Override
+    @Transactional
+    public BulkResponse upsertPokemon(List<PokemonDto> pokemonDtos) {
+        Set<String> names = new LinkedHashSet<>();
+        for (PokemonDto pokemonDto : pokemonDtos) {
+            if (pokemonDto != null && pokemonDto.getName() != null && !pokemonDto.getName().isBlank()) {
+                names.add(pokemonDto.getName());
+            }
+        }
+
+        Map<String, Pokemon> pokemonByName = new HashMap<>();
+        List<String> lookup = new ArrayList<>(names);
+        for (int from = 0; from < lookup.size(); from += NAME_LOOKUP_CHUNK) {
+            List<String> chunk = lookup.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, lookup.size()));
+            for (Pokemon pokemon : pokemonRepository.findByNameIn(chunk)) {
+                //names are not unique in older data, the oldest row wins
+                pokemonByName.merge(pokemon.getName(), pokemon, (a, b) -> a.getId() < b.getId() ? a : b);
+            }
+        }
+
+        List<BulkItemResult> results = new ArrayList<>();
+        //kept in step with results, filled in once the new rows have ids
+        List<Pokemon> pokemons = new ArrayList<>();
+        List<Pokemon> newPokemons = new ArrayList<>();
+        int updated = 0;
+        for (int index = 0; index < pokemonDtos.size(); index++) {
+            PokemonDto pokemonDto = pokemonDtos.get(index);
+            BulkItemResult result = new BulkItemResult(null, index, null, BulkItemStatus.FAILED, null);
+            results.add(result);
+            if (pokemonDto == null || pokemonDto.getName() == null || pokemonDto.getName().isBlank()) {
+                result.setMessage("Pokemon name is missing");
+                pokemons.add(null);
+                continue;
+            }
+
+            Pokemon pokemon = pokemonByName.get(pokemonDto.getName());
+            if (pokemon == null) {
+                pokemon = mapToEntity(pokemonDto);
+                pokemonByName.put(pokemon.getName(), pokemon);
+                newPokemons.add(pokemon);
+                result.setStatus(BulkItemStatus.CREATED);
+            } else {
+                pokemon.setType(pokemonDto.getType());
+                result.setStatus(BulkItemStatus.UPDATED);
+                updated++;
+            }
+            pokemons.add(pokemon);
+        }
+
+        //sequence ids let hibernate send these as jdbc batches, updates are flushed the same way on commit
+        pokemonRepository.saveAll(newPokemons);
+        List<Integer> newIds = newPokemons.stream().map(Pokemon::getId).collect(Collectors.toList());
+        for (int from = 0; from < newIds.size(); from += NAME_LOOKUP_CHUNK) {
+            pokemonRatingRepository.insertEmpty(newIds.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, newIds.size())));
+        }
+
+        //a name listed twice is one pokemon saved once
+        Map<Integer, Pokemon> saved = new LinkedHashMap<>();
+        for (int index = 0; index < results.size(); index++) {
+            if (pokemons.get(index) != null) {
+                results.get(index).setId(pokemons.get(index).getId());
+                saved.put(pokemons.get(index).getId(), pokemons.get(index));
+            }
+        }
+        for (Pokemon pokemon : saved.values()) {
+            eventPublisher.publishEvent(new PokemonSavedEvent(pokemon.getId(), mapToDto(pokemon)));
+        }
+
+        BulkResponse bulkResponse = new BulkResponse();
+        bulkResponse.setCreated(newPokemons.size());
+        bulkResponse.setUpdated(updated);
+        bulkResponse.setFailed(results.size() - newPokemons.size() - updated);
+        bulkResponse.setItems(results);
+        return bulkResponse;
+    }
+
     @Override
     public PokemonResponse getAllPokemon(int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Pokemon> pokemons = pokemonRepository.findAll(pageable);
+        Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("id"));
+        return mapToResponse(pokemonRepository.findAll(pageable));
+    }
+
+    @Override
+    public PokemonResponse getAllPokemon(PokemonFilter filter, int pageNo, int pageSize) {
+        String type = blankToNull(filter.getType());
+        String namePrefix = blankToNull(filter.getNamePrefix());
+        Double minRating = filter.getMinRating();
+        if (minRating != null && !(minRating >= 0 && minRating <= 5)) {
+            throw new InvalidFilterException("minRating must be between 0 and 5");
+        }
+        SortKey sortKey = sortKey(filter.getSortBy(), namePrefix, minRating);
+        boolean descending = descending(filter.getSortDir(), sortKey);
+
+        Set<String> filters = new TreeSet<>();
+        if (type != null) {
+            filters.add("type");
+        }
+        if (namePrefix != null) {
+            filters.add("name");
+        }
+        if (minRating != null) {
+            filters.add("minRating");
+        }
+        if (!SUPPORTED_FILTERS.get(sortKey).contains(filters)) {
+            throw new InvalidFilterException("No index answers " + describe(filters, sortKey)
+                    + ", supported are " + describeSupportedFilters());
+        }
+
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        PageRequest pageable = PageRequest.of(Math.max(0, pageNo), size);
+        return mapToResponse(pokemonRepository.findAll(
+                PokemonSpecifications.listing(type, namePrefix, minRating, sortKey, descending), pageable));
+    }
+
+    private PokemonResponse mapToResponse(Page<Pokemon> pokemons) {
         List<Pokemon> listOfPokemon = pokemons.getContent();
         List<PokemonDto> content = listOfPokemon.stream().map(p -> mapToDto(p)).collect(Collectors.toList());
 
@@ -57,6 +214,58 @@ public class PokemonServiceImpl implements PokemonService {
         return pokemonResponse;
     }
 
+    @Override
+    public PokemonResponse getAllPokemon(String after, int pageSize, boolean includeTotal) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        int afterId = after == null ? 0 : KeysetCursor.decode(after);
+
+        //one extra row tells whether another page follows
+        List<Pokemon> listOfPokemon = pokemonRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+        boolean last = listOfPokemon.size() <= size;
+        List<PokemonDto> content = listOfPokemon.stream().limit(size).map(p -> mapToDto(p)).collect(Collectors.toList());
+
+        PokemonResponse pokemonResponse = new PokemonResponse();
+        pokemonResponse.setContent(content);
+        pokemonResponse.setPageSize(size);
+        pokemonResponse.setLast(last);
+        pokemonResponse.setNextCursor(last ? null : KeysetCursor.encode(content.get(content.size() - 1).getId()));
+        if (includeTotal) {
+            long totalElements = pokemonRepository.count();
+            pokemonResponse.setTotalElements(totalElements);
+            pokemonResponse.setTotalPages((int) ((totalElements + size - 1) / size));
+        }
+
+        return pokemonResponse;
+    }
+
+    //the version tags are answered from id and version columns only, so an unchanged page costs no entity load
+    @Override
+    public String getPokemonListVersionTag(int pageNo, int pageSize) {
+        Page<VersionRow> versions = pokemonRepository.findVersions(PageRequest.of(pageNo, pageSize, Sort.by("id")));
+        return hashVersions("page:" + pageNo + ":" + pageSize + ":" + versions.getTotalElements(), versions.getContent());
+    }
+
+    @Override
+    public String getPokemonListVersionTag(String after, int pageSize, boolean includeTotal) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        int afterId = after == null ? 0 : KeysetCursor.decode(after);
+
+        List<VersionRow> versions = pokemonRepository.findVersionsByIdGreaterThan(afterId, PageRequest.of(0, size + 1));
+        String total = includeTotal ? String.valueOf(pokemonRepository.count()) : "";
+        return hashVersions("keyset:" + afterId + ":" + size + ":" + total, versions);
+    }
+
+    //taken from the page it answers with, filtered pages are not worth a second query to tag them
+    @Override
+    public String getPokemonListVersionTag(PokemonFilter filter, PokemonResponse page) {
+        StringBuilder source = new StringBuilder("filter:").append(filter).append(':').append(page.getPageNo())
+                .append(':').append(page.getPageSize()).append(':').append(page.getTotalElements());
+        for (PokemonDto pokemon : page.getContent()) {
+            source.append('|').append(pokemon.getId()).append(':').append(pokemon.getVersion());
+        }
+        return hash(source.toString());
+    }
+
     @Override
     public PokemonDto getPokemonById(int id) {
         Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be found"));
@@ -64,31 +273,123 @@ public class PokemonServiceImpl implements PokemonService {
     }
 
     @Override
+    public String getPokemonVersionTag(PokemonDto pokemon) {
+        return VersionTags.pokemon(pokemon.getId(), pokemon.getVersion());
+    }
+
+    @Override
+    @Transactional
     public PokemonDto updatePokemon(PokemonDto pokemonDto, int id) {
+        return updatePokemon(pokemonDto, id, null);
+    }
+
+    //the version is checked again on flush, so an edit committed after this read still fails with a conflict
+    @Override
+    @Transactional
+    public PokemonDto updatePokemon(PokemonDto pokemonDto, int id, String ifMatch) {
         Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be updated"));
+        if (!VersionTags.matches(ifMatch, VersionTags.pokemon(pokemon.getId(), pokemon.getVersion()))) {
+            throw new PreconditionFailedException("Pokemon was changed since it was read");
+        }
 
         pokemon.setName(pokemonDto.getName());
         pokemon.setType(pokemonDto.getType());
 
         Pokemon updatedPokemon = pokemonRepository.save(pokemon);
-        return mapToDto(updatedPokemon);
+        PokemonDto updatedPokemonDto = mapToDto(updatedPokemon);
+        eventPublisher.publishEvent(new PokemonSavedEvent(updatedPokemon.getId(), updatedPokemonDto));
+        return updatedPokemonDto;
     }
 
     @Override
+    @Transactional
     public void deletePokemonId(int id) {
         Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be delete"));
         pokemonRepository.delete(pokemon);
+        pokemonRatingRepository.deleteByPokemonId(id);
+        eventPublisher.publishEvent(new PokemonDeletedEvent(id));
+    }
+
+    private String hashVersions(String page, List<VersionRow> versions) {
+        StringBuilder source = new StringBuilder(page);
+        for (VersionRow row : versions) {
+            source.append('|').append(row.getId()).append(':').append(row.getVersion());
+        }
+        return hash(source.toString());
+    }
+
+    private String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "pokemon-list-" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    //without an explicit key the listing sorts by whatever the filters are indexed for
+    private SortKey sortKey(String sortBy, String namePrefix, Double minRating) {
+        if (sortBy == null || sortBy.isBlank()) {
+            if (minRating != null) {
+                return SortKey.RATING;
+            }
+            return namePrefix != null ? SortKey.NAME : SortKey.ID;
+        }
+        try {
+            return SortKey.valueOf(sortBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidFilterException("sortBy must be one of id, name or rating");
+        }
+    }
+
+    //best rated first unless asked otherwise
+    private boolean descending(String sortDir, SortKey sortKey) {
+        if (sortDir == null || sortDir.isBlank()) {
+            return sortKey == SortKey.RATING;
+        }
+        if (sortDir.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (sortDir.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new InvalidFilterException("sortDir must be asc or desc");
+    }
+
+    private String describeSupportedFilters() {
+        StringBuilder supported = new StringBuilder();
+        for (SortKey sortKey : SortKey.values()) {
+            for (Set<String> filters : SUPPORTED_FILTERS.get(sortKey)) {
+                if (supported.length() > 0) {
+                    supported.append(", ");
+                }
+                supported.append(describe(filters, sortKey));
+            }
+        }
+        return supported.toString();
+    }
+
+    private String describe(Set<String> filters, SortKey sortKey) {
+        String sortedBy = " sorted by " + sortKey.name().toLowerCase(Locale.ROOT)
+                + (sortKey == SortKey.RATING ? " (reviewed pokemon only)" : "");
+        return filters.isEmpty() ? "no filter" + sortedBy : String.join(" and ", new TreeSet<>(filters)) + sortedBy;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
-    private PokemonDto mapToDto(Pokemon pokemon) {
+    //package-private so MappingBenchmark can measure the mappers on their own
+    PokemonDto mapToDto(Pokemon pokemon) {
         PokemonDto pokemonDto = new PokemonDto();
         pokemonDto.setId(pokemon.getId());
         pokemonDto.setName(pokemon.getName());
         pokemonDto.setType(pokemon.getType());
+        pokemonDto.setVersion(pokemon.getVersion());
         return pokemonDto;
     }
 
-    private Pokemon mapToEntity(PokemonDto pokemonDto) {
+    Pokemon mapToEntity(PokemonDto pokemonDto) {
         Pokemon pokemon = new Pokemon();
         pokemon.setName(pokemonDto.getName());
         pokemon.setType(pokemonDto.getType());
@@ -0,0 +1,76 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.PokemonStreamService;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.StatementFilterFunction;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+@Service
+public class PokemonStreamServiceImpl implements PokemonStreamService {
+
+    //rows are fetched from the server this many at a time and only as the subscriber asks for them,
+    //a slow client holds a cursor open instead of the whole result in memory
+    private static final int FETCH_SIZE = 256;
+    private static final StatementFilterFunction FETCH_IN_BATCHES =
+            (statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE));
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public PokemonStreamServiceImpl(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Flux<PokemonDto> streamPokemon(int afterId, Integer limit) {
+        String sql = "select id, name, type, version from pokemon where id > :afterId order by id";
+        if (limit != null && limit <= 0) {
+            return Flux.empty();
+        }
+        DatabaseClient.GenericExecuteSpec spec;
+        if (limit == null) {
+            spec = databaseClient.sql(sql);
+        } else {
+            spec = databaseClient.sql(sql + " limit :limit").bind("limit", limit);
+        }
+        return spec.bind("afterId", afterId)
+                .filter(FETCH_IN_BATCHES)
+                .map(this::mapToPokemonDto)
+                .all();
+    }
+
+    //unlike the blocking listing this is not capped, the client reads as many reviews as it keeps up with
+    @Override
+    public Flux<ReviewDto> streamReviewsByPokemonId(int pokemonId) {
+        return databaseClient
+                .sql("select id, title, content, stars, version from review where pokemon_id = :pokemonId order by id")
+                .bind("pokemonId", pokemonId)
+                .filter(FETCH_IN_BATCHES)
+                .map(this::mapToReviewDto)
+                .all();
+    }
+
+    private PokemonDto mapToPokemonDto(Row row) {
+        PokemonDto pokemonDto = new PokemonDto();
+        pokemonDto.setId(row.get("id", Integer.class));
+        pokemonDto.setName(row.get("name", String.class));
+        pokemonDto.setType(row.get("type", String.class));
+        pokemonDto.setVersion(row.get("version", Integer.class));
+        return pokemonDto;
+    }
+
+    private ReviewDto mapToReviewDto(Row row) {
+        ReviewDto reviewDto = new ReviewDto();
+        reviewDto.setId(row.get("id", Integer.class));
+        reviewDto.setTitle(row.get("title", String.class));
+        reviewDto.setContent(row.get("content", String.class));
+        reviewDto.setStars(row.get("stars", Integer.class));
+        reviewDto.setVersion(row.get("version", Integer.class));
+        return reviewDto;
+    }
+}
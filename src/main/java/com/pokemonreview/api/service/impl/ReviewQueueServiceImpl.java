@@ -0,0 +1,43 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.ReviewQueueService;
+import com.pokemonreview.api.writebehind.ReviewWriteBehindQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ReviewQueueServiceImpl implements ReviewQueueService {
+
+    private ReviewWriteBehindQueue reviewWriteBehindQueue;
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    public ReviewQueueServiceImpl(ReviewWriteBehindQueue reviewWriteBehindQueue, PokemonRepository pokemonRepository) {
+        this.reviewWriteBehindQueue = reviewWriteBehindQueue;
+        this.pokemonRepository = pokemonRepository;
+    }
+
+    //by primary key so the check is served from the second-level cache, a pokemon deleted before the
+    //review is written still fails it then, and the tracking id reports that
+    @Override
+    public QueuedReviewDto queueReview(int pokemonId, ReviewDto reviewDto) {
+        if (pokemonRepository.findById(pokemonId).isEmpty()) {
+            throw new PokemonNotFoundException("Pokemon with associated review not found");
+        }
+        return reviewWriteBehindQueue.enqueue(pokemonId, reviewDto);
+    }
+
+    @Override
+    public QueuedReviewDto getQueuedReview(String trackingId) {
+        QueuedReviewDto status = reviewWriteBehindQueue.status(trackingId);
+        if (status == null) {
+            throw new ReviewNotFoundException("Queued review not found, it may have expired");
+        }
+        return status;
+    }
+}
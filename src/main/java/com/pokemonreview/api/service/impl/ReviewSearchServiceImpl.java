@@ -0,0 +1,64 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.ReviewSearchHit;
+import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.search.ReviewSearchIndex;
+import com.pokemonreview.api.service.ReviewSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ReviewSearchServiceImpl implements ReviewSearchService {
+    private static final int MAX_LIMIT = 100;
+
+    private ReviewSearchIndex reviewSearchIndex;
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    public ReviewSearchServiceImpl(ReviewSearchIndex reviewSearchIndex, ReviewRepository reviewRepository) {
+        this.reviewSearchIndex = reviewSearchIndex;
+        this.reviewRepository = reviewRepository;
+    }
+
+    //the index only answers which reviews match, the hits are read back from the database in one query,
+    //so they show the current text and a review deleted since is left out
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewSearchHit> searchReviews(String query, int limit) {
+        List<Integer> ids = reviewSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Review> reviewsById = new HashMap<>();
+        for (Review review : reviewRepository.findAllById(ids)) {
+            reviewsById.put(review.getId(), review);
+        }
+        List<ReviewSearchHit> hits = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Review review = reviewsById.get(id);
+            if (review != null) {
+                hits.add(mapToHit(review));
+            }
+        }
+        return hits;
+    }
+
+    //the pokemon proxy already carries its id, reading it does not load the pokemon
+    private ReviewSearchHit mapToHit(Review review) {
+        return ReviewSearchHit.builder()
+                .id(review.getId())
+                .pokemonId(review.getPokemon().getId())
+                .title(review.getTitle())
+                .content(review.getContent())
+                .stars(review.getStars())
+                .build();
+    }
+}
@@ -1,32 +1,60 @@
 package com.pokemonreview.api.service.impl;
 
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonRatingDto;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewResponse;
+import com.pokemonreview.api.events.ReviewDeletedEvent;
+import com.pokemonreview.api.events.ReviewSavedEvent;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.PreconditionFailedException;
 import com.pokemonreview.api.exceptions.ReviewNotFoundException;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.PokemonRating;
 import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
 import com.pokemonreview.api.repository.PokemonRepository;
 import com.pokemonreview.api.repository.ReviewRepository;
 import com.pokemonreview.api.service.PokemonService;
 import com.pokemonreview.api.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
+    private static final int MAX_REVIEWS = 1000;
+    private static final int MAX_PAGE_LIMIT = 100;
+
     private ReviewRepository reviewRepository;
     private PokemonRepository pokemonRepository;
+    private PokemonRatingRepository pokemonRatingRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ReviewServiceImpl(ReviewRepository reviewRepository, PokemonRepository pokemonRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, PokemonRepository pokemonRepository,
+                             PokemonRatingRepository pokemonRatingRepository, ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.pokemonRepository = pokemonRepository;
+        this.pokemonRatingRepository = pokemonRatingRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public ReviewDto createReview(int pokemonId, ReviewDto reviewDto) {
         Review review = mapToEntity(reviewDto);
 
@@ -35,72 +63,279 @@ public class ReviewServiceImpl implements ReviewService {
         review.setPokemon(pokemon);
 
         Review newReview = reviewRepository.save(review);
+        updateRating(pokemonId, null, newReview.getStars());
 
-        return mapToDto(newReview);
+        ReviewDto newReviewDto = mapToDto(newReview);
+        eventPublisher.publishEvent(new ReviewSavedEvent(pokemonId, newReviewDto));
+        return newReviewDto;
+    }
+
+    @Override
+    @Transactional
+    public BulkResponse createReviews(Map<Integer, List<ReviewDto>> reviewsByPokemonId) {
+        Set<Integer> existingIds = pokemonRepository.findExistingIds(reviewsByPokemonId.keySet());
+
+        List<BulkItemResult> results = new ArrayList<>();
+        //kept in step with reviews, Review's generated hashCode would initialize the pokemon proxy
+        List<Review> reviews = new ArrayList<>();
+        List<BulkItemResult> pending = new ArrayList<>();
+        for (Map.Entry<Integer, List<ReviewDto>> entry : reviewsByPokemonId.entrySet()) {
+            int pokemonId = entry.getKey();
+            List<ReviewDto> reviewDtos = entry.getValue() == null ? List.of() : entry.getValue();
+            Pokemon pokemon = existingIds.contains(pokemonId) ? pokemonRepository.getReferenceById(pokemonId) : null;
+
+            for (int index = 0; index < reviewDtos.size(); index++) {
+                BulkItemResult result = new BulkItemResult(pokemonId, index, null, BulkItemStatus.FAILED, null);
+                results.add(result);
+                if (pokemon == null) {
+                    result.setMessage("Pokemon with associated review not found");
+                } else if (reviewDtos.get(index) == null) {
+                    result.setMessage("Review is missing");
+                } else {
+                    Review review = mapToEntity(reviewDtos.get(index));
+                    review.setId(0);
+                    review.setPokemon(pokemon);
+                    reviews.add(review);
+                    pending.add(result);
+                }
+            }
+        }
+
+        //sequence ids let hibernate send these as jdbc batches
+        reviewRepository.saveAll(reviews);
+
+        //one aggregate update per pokemon instead of one per review. in ascending pokemon id, so two batches that
+        //share pokemon lock their rating rows in the same order and wait on each other instead of deadlocking
+        Map<Integer, int[]> starCountsByPokemon = new TreeMap<>();
+        Map<Integer, Integer> reviewCountByPokemon = new LinkedHashMap<>();
+        Map<Integer, Long> starsTotalByPokemon = new LinkedHashMap<>();
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            BulkItemResult result = pending.get(i);
+            int pokemonId = result.getPokemonId();
+            result.setId(review.getId());
+            result.setStatus(BulkItemStatus.CREATED);
+            countStars(starCountsByPokemon.computeIfAbsent(pokemonId, id -> new int[6]), review.getStars(), 1);
+            reviewCountByPokemon.merge(pokemonId, 1, Integer::sum);
+            starsTotalByPokemon.merge(pokemonId, (long) review.getStars(), Long::sum);
+            eventPublisher.publishEvent(new ReviewSavedEvent(pokemonId, mapToDto(review)));
+        }
+        for (Map.Entry<Integer, int[]> entry : starCountsByPokemon.entrySet()) {
+            int pokemonId = entry.getKey();
+            applyRatingDelta(pokemonId, reviewCountByPokemon.get(pokemonId), starsTotalByPokemon.get(pokemonId), entry.getValue());
+        }
+
+        BulkResponse bulkResponse = new BulkResponse();
+        bulkResponse.setCreated(pending.size());
+        bulkResponse.setFailed(results.size() - pending.size());
+        bulkResponse.setItems(results);
+        return bulkResponse;
     }
 
     @Override
     public List<ReviewDto> getReviewsByPokemonId(int id) {
-        List<Review> reviews = reviewRepository.findByPokemonId(id);
+        List<Review> reviews = reviewRepository.findByPokemonId(id, PageRequest.of(0, MAX_REVIEWS, Sort.by("id")));
 
         return reviews.stream().map(review -> mapToDto(review)).collect(Collectors.toList());
     }
 
     @Override
-    public ReviewDto getReviewById(int reviewId, int pokemonId) {
-        Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
+    public String getReviewsVersionTag(int pokemonId) {
+        //no aggregate yet means no tag, the listing is then always served in full
+        return pokemonRatingRepository.findVersionByPokemonId(pokemonId)
+                .map(version -> VersionTags.reviews(pokemonId, version))
+                .orElse(null);
+    }
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+    @Override
+    public ReviewResponse getReviewsByPokemonId(int id, String after, int limit) {
+        int pageLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        int afterId = after == null ? 0 : KeysetCursor.decode(after);
 
-        if(review.getPokemon().getId() != pokemon.getId()) {
-            throw new ReviewNotFoundException("This review does not belond to a pokemon");
-        }
+        //one extra row tells whether another page follows
+        List<Review> reviews = reviewRepository.findByPokemonIdAndIdGreaterThanOrderByIdAsc(id, afterId, PageRequest.of(0, pageLimit + 1));
+        boolean last = reviews.size() <= pageLimit;
+        List<ReviewDto> content = reviews.stream().limit(pageLimit).map(review -> mapToDto(review)).collect(Collectors.toList());
+
+        ReviewResponse reviewResponse = new ReviewResponse();
+        reviewResponse.setContent(content);
+        reviewResponse.setLimit(pageLimit);
+        reviewResponse.setLast(last);
+        reviewResponse.setNextCursor(last ? null : KeysetCursor.encode(content.get(content.size() - 1).getId()));
+        return reviewResponse;
+    }
+
+    @Override
+    public ReviewDto getReviewById(int reviewId, int pokemonId) {
+        Review review = findCachedReview(pokemonId, reviewId);
 
         return mapToDto(review);
     }
 
     @Override
-    public ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto) {
-        Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
+    public String getReviewVersionTag(ReviewDto review) {
+        return VersionTags.review(review.getId(), review.getVersion());
+    }
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+    @Override
+    @Transactional
+    public ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto) {
+        return updateReview(pokemonId, reviewId, reviewDto, null);
+    }
 
-        if(review.getPokemon().getId() != pokemon.getId()) {
-            throw new ReviewNotFoundException("This review does not belong to a pokemon");
+    //the version is checked again on flush, so an edit committed after this read still fails with a conflict
+    @Override
+    @Transactional
+    public ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto, String ifMatch) {
+        Review review = findReview(pokemonId, reviewId);
+        if (!VersionTags.matches(ifMatch, VersionTags.review(review.getId(), review.getVersion()))) {
+            throw new PreconditionFailedException("Review was changed since it was read");
         }
 
+        int previousStars = review.getStars();
         review.setTitle(reviewDto.getTitle());
         review.setContent(reviewDto.getContent());
         review.setStars(reviewDto.getStars());
 
         Review updateReview = reviewRepository.save(review);
+        //runs even when the stars are unchanged, the aggregate version tags the reviews listing
+        updateRating(pokemonId, previousStars, updateReview.getStars());
 
-        return mapToDto(updateReview);
+        ReviewDto updatedReviewDto = mapToDto(updateReview);
+        eventPublisher.publishEvent(new ReviewSavedEvent(pokemonId, updatedReviewDto));
+        return updatedReviewDto;
     }
 
     @Override
+    @Transactional
     public void deleteReview(int pokemonId, int reviewId) {
-        Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
+        Review review = findReview(pokemonId, reviewId);
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+        reviewRepository.delete(review);
+        updateRating(pokemonId, review.getStars(), null);
+        eventPublisher.publishEvent(new ReviewDeletedEvent(pokemonId, reviewId));
+    }
 
-        if(review.getPokemon().getId() != pokemon.getId()) {
-            throw new ReviewNotFoundException("This review does not belong to a pokemon");
+    @Override
+    public PokemonRatingDto getRatingByPokemonId(int pokemonId) {
+        if (!pokemonRepository.existsById(pokemonId)) {
+            throw new PokemonNotFoundException("Pokemon could not be found");
         }
 
-        reviewRepository.delete(review);
+        //every pokemon has its row, see RatingBackfillConfig, one inserted since startup by other means has no reviews
+        PokemonRating rating = pokemonRatingRepository.findById(pokemonId)
+                .orElseGet(() -> PokemonRating.builder().pokemonId(pokemonId).build());
+        return mapToDto(rating);
+    }
+
+    //by primary key so repeat reads are served from the second-level cache,
+    //the pokemon proxy already carries the foreign key so the check costs no query
+    private Review findCachedReview(int pokemonId, int reviewId) {
+        return reviewRepository.findById(reviewId)
+                .filter(r -> r.getPokemon().getId() == pokemonId)
+                .orElseThrow(() -> reviewNotFound(pokemonId));
+    }
+
+    //one query on the happy path, a miss pays for a second one to tell which 404 it is
+    private Review findReview(int pokemonId, int reviewId) {
+        return reviewRepository.findByIdAndPokemonId(reviewId, pokemonId).orElseThrow(() -> reviewNotFound(pokemonId));
+    }
+
+    private RuntimeException reviewNotFound(int pokemonId) {
+        if (!pokemonRepository.existsById(pokemonId)) {
+            return new PokemonNotFoundException("Pokemon with associated review not found");
+        }
+        return new ReviewNotFoundException("Review with associate pokemon not found");
+    }
+
+    //a null removedStars/addedStars means no review left or entered the aggregate
+    private void updateRating(int pokemonId, Integer removedStars, Integer addedStars) {
+        int[] starCounts = new int[6];
+        int reviewCount = 0;
+        long starsTotal = 0;
+        if (removedStars != null) {
+            reviewCount--;
+            starsTotal -= removedStars;
+            countStars(starCounts, removedStars, -1);
+        }
+        if (addedStars != null) {
+            reviewCount++;
+            starsTotal += addedStars;
+            countStars(starCounts, addedStars, 1);
+        }
+
+        applyRatingDelta(pokemonId, reviewCount, starsTotal, starCounts);
+    }
+
+    private void applyRatingDelta(int pokemonId, int reviewCount, long starsTotal, int[] starCounts) {
+        int updated = pokemonRatingRepository.applyDelta(pokemonId, reviewCount, starsTotal,
+                starCounts[1], starCounts[2], starCounts[3], starCounts[4], starCounts[5]);
+        if (updated == 0) {
+            //only a pokemon inserted since startup without going through PokemonService lacks its row. it is counted
+            //from the reviews this transaction sees, which already include this change
+            pokemonRatingRepository.saveAndFlush(computeRating(pokemonId));
+        }
+    }
+
+    private PokemonRating computeRating(int pokemonId) {
+        int[] starCounts = new int[6];
+        int reviewCount = 0;
+        long starsTotal = 0;
+        for (Object[] row : reviewRepository.countStarsByPokemonId(pokemonId)) {
+            int stars = ((Number) row[0]).intValue();
+            int count = ((Number) row[1]).intValue();
+            reviewCount += count;
+            starsTotal += (long) stars * count;
+            countStars(starCounts, stars, count);
+        }
+
+        return PokemonRating.builder()
+                .pokemonId(pokemonId)
+                .reviewCount(reviewCount)
+                .starsTotal(starsTotal)
+                .oneStar(starCounts[1])
+                .twoStars(starCounts[2])
+                .threeStars(starCounts[3])
+                .fourStars(starCounts[4])
+                .fiveStars(starCounts[5])
+                .averageStars(reviewCount > 0 ? (double) starsTotal / reviewCount : 0)
+                .build();
+    }
+
+    private void countStars(int[] starCounts, int stars, int count) {
+        if (stars >= 1 && stars <= 5) {
+            starCounts[stars] += count;
+        }
+    }
+
+    private PokemonRatingDto mapToDto(PokemonRating rating) {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(1, rating.getOneStar());
+        histogram.put(2, rating.getTwoStars());
+        histogram.put(3, rating.getThreeStars());
+        histogram.put(4, rating.getFourStars());
+        histogram.put(5, rating.getFiveStars());
+
+        PokemonRatingDto ratingDto = new PokemonRatingDto();
+        ratingDto.setPokemonId(rating.getPokemonId());
+        ratingDto.setReviewCount(rating.getReviewCount());
+        ratingDto.setAverageStars(rating.getReviewCount() > 0 ? (double) rating.getStarsTotal() / rating.getReviewCount() : 0);
+        ratingDto.setHistogram(histogram);
+        return ratingDto;
     }
 
-    private ReviewDto mapToDto(Review review) {
+    //package-private so MappingBenchmark can measure the mappers on their own
+    ReviewDto mapToDto(Review review) {
         ReviewDto reviewDto = new ReviewDto();
         reviewDto.setId(review.getId());
         reviewDto.setTitle(review.getTitle());
         reviewDto.setContent(review.getContent());
         reviewDto.setStars(review.getStars());
+        reviewDto.setVersion(review.getVersion());
         return reviewDto;
     }
 
-    private Review mapToEntity(ReviewDto reviewDto) {
+    Review mapToEntity(ReviewDto reviewDto) {
         Review review = new Review();
         review.setId(reviewDto.getId());
         review.setTitle(reviewDto.getTitle());
@@ -0,0 +1,39 @@
+package com.pokemonreview.api.service.impl;
+
+public final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    public static String pokemon(int id, int version) {
+        return "pokemon-" + id + "-" + version;
+    }
+
+    public static String review(int id, int version) {
+        return "review-" + id + "-" + version;
+    }
+
+    public static String reviews(int pokemonId, int version) {
+        return "reviews-" + pokemonId + "-" + version;
+    }
+
+    //If-Match uses the strong comparison, so weak tags in the header never match
+    public static boolean matches(String ifMatch, String tag) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                continue;
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,242 @@
+package com.pokemonreview.api.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.QueuedReviewStatus;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.ReviewQueueClosedException;
+import com.pokemonreview.api.exceptions.ReviewQueueFullException;
+import com.pokemonreview.api.service.ReviewService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//reviews accepted with 202 wait here and are written by one thread, everything queued while the previous batch
+//was saving goes out in the next one. each batch is one transaction through ReviewService.createReviews, so a
+//spike costs a commit per batch rather than one per review. the queue lives in the process: a review still
+//queued when the process dies is lost, stop() drains it on a normal shutdown
+public class ReviewWriteBehindQueue implements SmartLifecycle {
+
+    public static final String SIZE_METRIC_NAME = "app.review.queue.size";
+    public static final String REJECTED_METRIC_NAME = "app.review.queue.rejected";
+    public static final String FLUSH_METRIC_NAME = "app.review.queue.flush";
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    //caps the finished outcomes kept for polling, the pending ones are never evicted
+    private static final int MAX_STATUSES = 100_000;
+    private static final Logger log = LoggerFactory.getLogger(ReviewWriteBehindQueue.class);
+
+    private final ReviewService reviewService;
+    private final BlockingQueue<QueuedReview> queue;
+    private final int batchSize;
+    private final Duration drainTimeout;
+    //reviews not written yet, never evicted. bounded by the queue capacity plus the batch being written
+    private final Map<String, QueuedReviewDto> pending = new ConcurrentHashMap<>();
+    //finished entries stay for the retention, so clients can poll the outcome
+    private final Cache<String, QueuedReviewDto> statuses;
+    //enqueue holds the read lock from the accepting check to the offer, stop takes the write lock to close the
+    //queue. once stop has it, no review can still be on its way in behind the writer's back
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private final Counter rejected;
+    private final Timer flushes;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ReviewWriteBehindQueue(ReviewService reviewService, int capacity, int batchSize, Duration drainTimeout,
+                                  Duration statusRetention, MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.drainTimeout = drainTimeout;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize(MAX_STATUSES)
+                .build();
+        Gauge.builder(SIZE_METRIC_NAME, queue, BlockingQueue::size)
+                .description("Reviews accepted and not yet written")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_METRIC_NAME)
+                .description("Reviews turned away because the queue was full")
+                .register(meterRegistry);
+        this.flushes = Timer.builder(FLUSH_METRIC_NAME)
+                .description("Batches written from the queue")
+                .register(meterRegistry);
+    }
+
+    public QueuedReviewDto enqueue(int pokemonId, ReviewDto reviewDto) {
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new ReviewQueueClosedException("Review queue is shutting down");
+            }
+            String trackingId = UUID.randomUUID().toString();
+            QueuedReviewDto status = new QueuedReviewDto(trackingId, pokemonId, QueuedReviewStatus.QUEUED, null, null);
+            //recorded first, the writer may finish the review before offer returns
+            pending.put(trackingId, status);
+            if (!queue.offer(new QueuedReview(trackingId, pokemonId, reviewDto))) {
+                pending.remove(trackingId);
+                rejected.increment();
+                throw new ReviewQueueFullException("Review queue is full, try again later");
+            }
+            return status;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    //pending first, finish moves an entry to the cache before it leaves pending, so it is always in one of them
+    public QueuedReviewDto status(String trackingId) {
+        QueuedReviewDto status = pending.get(trackingId);
+        return status != null ? status : statuses.getIfPresent(trackingId);
+    }
+
+    //started before the web server, so requests never find it closed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public synchronized void start() {
+        accepting = true;
+        running = true;
+        writer = new Thread(this::run, "review-write-behind");
+        writer.start();
+    }
+
+    //runs after the web server stopped taking requests, the writer empties the queue before the context closes
+    @Override
+    public synchronized void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        try {
+            writer.join(drainTimeout.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Review queue was not drained within {}, {} reviews were not written", drainTimeout, queue.size());
+            //the writer stops after the batch it is on. that batch is reported failed too unless it already has an
+            //outcome, one it still gets in time replaces the failure
+            queue.clear();
+            writer.interrupt();
+            for (QueuedReviewDto status : pending.values()) {
+                statuses.asMap().putIfAbsent(status.getTrackingId(), new QueuedReviewDto(status.getTrackingId(),
+                        status.getPokemonId(), QueuedReviewStatus.FAILED, null, "Review was not saved before the server shut down"));
+                pending.remove(status.getTrackingId());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<QueuedReview> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedReview first = queue.poll(POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flushes.record(() -> write(batch));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    //a batch that fails rolled back as a whole, its halves are written again on their own until only the reviews
+    //that fail by themselves are left, so one bad review does not take the others of its batch down with it
+    private void write(List<QueuedReview> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException ex) {
+            if (batch.size() > 1) {
+                log.debug("Could not write {} queued reviews, writing them again in halves", batch.size(), ex);
+                write(batch.subList(0, batch.size() / 2));
+                write(batch.subList(batch.size() / 2, batch.size()));
+                return;
+            }
+            log.error("Could not write a queued review for pokemon {}", batch.get(0).pokemonId, ex);
+            finish(batch.get(0), QueuedReviewStatus.FAILED, null, "Review could not be saved");
+        }
+    }
+
+    private void flush(List<QueuedReview> batch) {
+        Map<Integer, List<ReviewDto>> reviewsByPokemonId = new LinkedHashMap<>();
+        Map<Integer, List<QueuedReview>> queuedByPokemonId = new HashMap<>();
+        for (QueuedReview review : batch) {
+            reviewsByPokemonId.computeIfAbsent(review.pokemonId, id -> new ArrayList<>()).add(review.review);
+            queuedByPokemonId.computeIfAbsent(review.pokemonId, id -> new ArrayList<>()).add(review);
+        }
+
+        //items come back by pokemon and position in its list, which is the order they were queued in
+        BulkResponse response = reviewService.createReviews(reviewsByPokemonId);
+        for (BulkItemResult item : response.getItems()) {
+            QueuedReview review = queuedByPokemonId.get(item.getPokemonId()).get(item.getIndex());
+            if (item.getStatus() == BulkItemStatus.CREATED) {
+                finish(review, QueuedReviewStatus.CREATED, item.getId(), null);
+            } else {
+                finish(review, QueuedReviewStatus.FAILED, null, item.getMessage());
+            }
+        }
+    }
+
+    private void finish(QueuedReview review, QueuedReviewStatus status, Integer reviewId, String message) {
+        statuses.put(review.trackingId, new QueuedReviewDto(review.trackingId, review.pokemonId, status, reviewId, message));
+        pending.remove(review.trackingId);
+    }
+
+    private static final class QueuedReview {
+        private final String trackingId;
+        private final int pokemonId;
+        private final ReviewDto review;
+
+        private QueuedReview(String trackingId, int pokemonId, ReviewDto review) {
+            this.trackingId = trackingId;
+            this.pokemonId = pokemonId;
+            this.review = review;
+        }
+    }
+}
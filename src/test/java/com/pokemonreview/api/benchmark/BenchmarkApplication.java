@@ -0,0 +1,87 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.ApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+//boots the api against a private in-memory H2 database so benchmarks need no outside services
+final class BenchmarkApplication {
+
+    //the allocationSize of the pokemon and review sequence generators
+    private static final int ALLOCATION_SIZE = 50;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        String database = UUID.randomUUID().toString();
+        List<String> all = new ArrayList<>(Arrays.asList(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "logging.level.root=WARN"));
+        all.addAll(Arrays.asList(properties));
+        //passed as arguments so they win over application.properties
+        return new SpringApplicationBuilder(ApiApplication.class)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static void seedPokemon(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(
+                "insert into pokemon (id, name, type) " +
+                "select x, concat('pokemon', x), case mod(x, 3) when 0 then 'fire' when 1 then 'water' else 'grass' end " +
+                "from system_range(1, ?)", count);
+        //the ids above bypass pokemon_seq, move it past them for pokemon created through the api
+        restartSequence(jdbcTemplate, "pokemon_seq", count);
+    }
+
+    //one review per seeded pokemon, review x belongs to pokemon x
+    static void seedReviews(ConfigurableApplicationContext context, int count) {
+        seedReviews(context, count, count);
+    }
+
+    //reviews are dealt round robin, review x belongs to pokemon reviewPokemonId(x, pokemonCount)
+    static void seedReviews(ConfigurableApplicationContext context, int count, int pokemonCount) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(
+                "insert into review (id, title, content, stars, pokemon_id) " +
+                "select x, concat('title', x), 'content', mod(x, 5) + 1, mod(x - 1, ?) + 1 " +
+                "from system_range(1, ?)", pokemonCount, count);
+        restartSequence(jdbcTemplate, "review_seq", count);
+    }
+
+    //hibernate's pooled optimizer takes each value it reads as the top of a block of ALLOCATION_SIZE ids,
+    //restarting at lastId + 1 would hand out ids the seed already used
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, int lastId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (lastId + ALLOCATION_SIZE));
+    }
+
+    //builds the rating aggregates from the seeded reviews, as the review endpoints would have
+    static void seedRatings(ConfigurableApplicationContext context) {
+        context.getBean(JdbcTemplate.class).update(
+                "insert into pokemon_rating (pokemon_id, review_count, stars_total, one_star, two_stars, " +
+                "three_stars, four_stars, five_stars, average_stars, version) " +
+                "select pokemon_id, count(*), sum(stars), sum(case stars when 1 then 1 else 0 end), " +
+                "sum(case stars when 2 then 1 else 0 end), sum(case stars when 3 then 1 else 0 end), " +
+                "sum(case stars when 4 then 1 else 0 end), sum(case stars when 5 then 1 else 0 end), sum(stars) * 1.0 / count(*), 0 " +
+                "from review group by pokemon_id");
+    }
+
+    static int reviewPokemonId(int reviewId, int pokemonCount) {
+        return (reviewId - 1) % pokemonCount + 1;
+    }
+}
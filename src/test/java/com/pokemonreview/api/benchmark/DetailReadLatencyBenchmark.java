@@ -0,0 +1,57 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.PokemonService;
+import com.pokemonreview.api.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//compare the p0.99 rows of the two cache settings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DetailReadLatencyBenchmark {
+
+    //fits in the pokemon region, so once warm every read is a hit
+    private static final int ROWS = 10_000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private PokemonService pokemonService;
+    private ReviewService reviewService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache);
+        BenchmarkApplication.seedPokemon(context, ROWS);
+        BenchmarkApplication.seedReviews(context, ROWS);
+        pokemonService = context.getBean(PokemonService.class);
+        reviewService = context.getBean(ReviewService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PokemonDto pokemonDetail() {
+        return pokemonService.getPokemonById(1 + ThreadLocalRandom.current().nextInt(ROWS));
+    }
+
+    @Benchmark
+    public ReviewDto reviewDetail() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(ROWS);
+        return reviewService.getReviewById(id, id);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.security.CustomUserDetailsService;
+import com.pokemonreview.api.security.JWTAuthenticationFilter;
+import com.pokemonreview.api.security.JWTGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTAuthenticationFilterBenchmark {
+
+    private JWTGenerator tokenGenerator;
+    private JWTAuthenticationFilter filter;
+    private String token;
+
+    private final FilterChain filterChain = (request, response) -> { };
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenGenerator = new JWTGenerator();
+
+        //the user lookup is stubbed out so the numbers only reflect token handling
+        UserDetails user = new User("ash", "password", Collections.singletonList(new SimpleGrantedAuthority("USER")));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null, new SimpleMeterRegistry()) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+
+        filter = new JWTAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenGenerator", tokenGenerator);
+        ReflectionTestUtils.setField(filter, "customUserDetailsService", userDetailsService);
+    }
+
+    //tokens only live for SecurityConstants.JWT_EXPIRATION, so a fresh one is issued per iteration
+    @Setup(Level.Iteration)
+    public void issueToken() {
+        token = tokenGenerator.generateToken(new UsernamePasswordAuthenticationToken("ash", "password"));
+    }
+
+    @Benchmark
+    public String validateThenParse() {
+        tokenGenerator.validateToken(token);
+        return tokenGenerator.getUsernameFromJWT(token);
+    }
+
+    @Benchmark
+    public String parseOnceCached() {
+        return tokenGenerator.getClaimsFromJWT(token).getSubject();
+    }
+
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pokemon");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, response, filterChain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,51 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.security.JWTGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTGeneratorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean embedAuthorities;
+
+    private JWTGenerator tokenGenerator;
+    private Authentication authentication;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenGenerator = new JWTGenerator();
+        ReflectionTestUtils.setField(tokenGenerator, "embedAuthorities", embedAuthorities);
+        authentication = new UsernamePasswordAuthenticationToken("ash", "password",
+                Collections.singletonList(new SimpleGrantedAuthority("USER")));
+    }
+
+    //tokens only live for SecurityConstants.JWT_EXPIRATION, so a fresh one is issued per iteration
+    @Setup(Level.Iteration)
+    public void issueToken() {
+        token = tokenGenerator.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenGenerator.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenGenerator.validateToken(token);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pokemonreview.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PokemonResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //configured like the mapper spring mvc writes responses with
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<PokemonDto> content = new ArrayList<>();
+        for (int i = 1; i <= pageSize; i++) {
+            content.add(PokemonDto.builder().id(i).name("pokemon" + i).type("electric").build());
+        }
+        response = new PokemonResponse();
+        response.setContent(content);
+        response.setPageNo(0);
+        response.setPageSize(pageSize);
+        response.setTotalElements(1000);
+        response.setTotalPages(1000 / pageSize);
+        response.setLast(false);
+    }
+
+    @Benchmark
+    public byte[] writePokemonResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
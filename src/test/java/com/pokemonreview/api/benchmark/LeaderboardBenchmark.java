@@ -0,0 +1,74 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.TopPokemonResponse;
+import com.pokemonreview.api.leaderboard.PokemonLeaderboard;
+import com.pokemonreview.api.service.LeaderboardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//the top ten over 1M reviews of 100k pokemon: answered from the in-memory ranking, ranked by a group by over
+//the reviews on every request as the endpoint would otherwise have to, and the cost of a full reload
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LeaderboardBenchmark {
+
+    private static final int POKEMON = 100_000;
+    private static final int REVIEWS = 1_000_000;
+    private static final int PRIOR_WEIGHT = 10;
+
+    private ConfigurableApplicationContext context;
+    private LeaderboardService leaderboardService;
+    private PokemonLeaderboard pokemonLeaderboard;
+    private JdbcTemplate jdbcTemplate;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedPokemon(context, POKEMON);
+        BenchmarkApplication.seedReviews(context, REVIEWS, POKEMON);
+        BenchmarkApplication.seedRatings(context);
+        leaderboardService = context.getBean(LeaderboardService.class);
+        pokemonLeaderboard = context.getBean(PokemonLeaderboard.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        //the ranking was built on startup, before the seed
+        pokemonLeaderboard.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TopPokemonResponse leaderboard() {
+        return leaderboardService.getTopPokemon(null, 10);
+    }
+
+    //h2 hands back the previous result of a query run again with the same parameters on unchanged tables,
+    //the id bound alternates so every call is really executed
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Map<String, Object>> groupByPerRequest() {
+        return jdbcTemplate.queryForList(
+                "select r.pokemon_id, count(*) as review_count, " +
+                "(? * (select avg(stars) from review) + sum(r.stars)) / (? + count(*)) as score " +
+                "from review r where r.id > ? group by r.pokemon_id order by score desc limit 10",
+                PRIOR_WEIGHT, PRIOR_WEIGHT, -1 - (invocation++ & 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void reload() {
+        pokemonLeaderboard.reload();
+    }
+}
@@ -0,0 +1,341 @@
+package com.pokemonreview.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.config.VirtualThreads;
+import com.pokemonreview.api.security.SecurityConstants;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+//drives the api over http with a fixed number of closed loop clients, run it through the loadtest profile:
+//mvn -Ploadtest test -DskipTests -Dloadtest.args="clients=64 duration=120 mix=list:20,detail:40,review-read:30,review-write:10"
+//compare the virtual thread server with profiles=virtual-threads, which needs a java 21 runtime
+public final class LoadGenerator {
+
+    private static final String USERNAME = "loadtest";
+    private static final String PASSWORD = "loadtest";
+    //tokens expire after SecurityConstants.JWT_EXPIRATION, log in again well before that
+    private static final long TOKEN_REFRESH_MILLIS = SecurityConstants.JWT_EXPIRATION / 2;
+    //latencies are recorded in microseconds, anything slower than a minute is clamped
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    enum Endpoint {
+        LIST, DETAIL, REVIEW_READ, REVIEW_WRITE, LOGIN;
+
+        String label() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    //one per endpoint, the recorder lets the warmup be dropped while the clients keep running
+    private static final class Stats {
+        private final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean success) {
+            recorder.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            recorder.reset();
+            errors.reset();
+        }
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int pokemonCount;
+    private final int reviewCount;
+    private final int pageSize;
+    private final Endpoint[] mixEndpoints;
+    private final int[] mixWeights;
+
+    private final ReentrantLock tokenLock = new ReentrantLock();
+    private volatile boolean running = true;
+    private String token;
+    private long tokenIssuedAt;
+
+    private LoadGenerator(ObjectMapper objectMapper, String baseUrl, int pokemonCount, int reviewCount, int pageSize,
+                          Map<Endpoint, Integer> mix) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.pokemonCount = pokemonCount;
+        this.reviewCount = reviewCount;
+        this.pageSize = pageSize;
+        this.mixEndpoints = mix.keySet().toArray(new Endpoint[0]);
+        //cumulative weights, so picking an endpoint is one random number and a short scan
+        this.mixWeights = new int[mixEndpoints.length];
+        int total = 0;
+        for (int i = 0; i < mixEndpoints.length; i++) {
+            total += mix.get(mixEndpoints[i]);
+            mixWeights[i] = total;
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(pair[0], pair[1]);
+        }
+        int pokemonCount = intOption(options, "pokemon", 10_000);
+        int reviewCount = intOption(options, "reviews", 50_000);
+        int clients = intOption(options, "clients", 32);
+        int warmupSeconds = intOption(options, "warmup", 10);
+        int durationSeconds = intOption(options, "duration", 60);
+        int pageSize = intOption(options, "pageSize", 10);
+        Map<Endpoint, Integer> mix = parseMix(options.getOrDefault("mix", "list:40,detail:30,review-read:20,review-write:10"));
+        Path output = Paths.get(options.getOrDefault("output", "target/loadtest"));
+        String profiles = options.getOrDefault("profiles", "");
+
+        System.out.printf("Serving on %s%n", profiles.isEmpty() ? "the tomcat worker pool" : "profiles " + profiles);
+        ConfigurableApplicationContext context = profiles.isEmpty()
+                ? BenchmarkApplication.start()
+                : BenchmarkApplication.start("spring.profiles.active=" + profiles);
+        try {
+            BenchmarkApplication.seedPokemon(context, pokemonCount);
+            BenchmarkApplication.seedReviews(context, reviewCount, pokemonCount);
+            BenchmarkApplication.seedRatings(context);
+            context.getBean(JdbcTemplate.class).update("insert into roles (name) values ('USER')");
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/";
+            LoadGenerator generator = new LoadGenerator(context.getBean(ObjectMapper.class), baseUrl,
+                    pokemonCount, reviewCount, pageSize, mix);
+            generator.register();
+            generator.run(clients, warmupSeconds, durationSeconds, output);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(int clients, int warmupSeconds, int durationSeconds, Path output) throws Exception {
+        System.out.printf("%d clients, %ds warmup, %ds measured, mix %s%n", clients, warmupSeconds, durationSeconds,
+                describeMix());
+
+        //thousands of blocking clients are cheap on virtual threads, platform threads are the fallback before java 21
+        ExecutorService executor = VirtualThreads.isSupported() ? VirtualThreads.newExecutor() : Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                while (running) {
+                    call(pickEndpoint());
+                }
+                return null;
+            }));
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        stats.values().forEach(Stats::reset);
+        long measureStart = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        running = false;
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        report(elapsedSeconds, output);
+    }
+
+    private void call(Endpoint endpoint) throws IOException, InterruptedException {
+        HttpRequest request = request(endpoint, ThreadLocalRandom.current());
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            success = status >= 200 && status < 300;
+        } catch (IOException ex) {
+            success = false;
+        }
+        stats.get(endpoint).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), success);
+    }
+
+    private HttpRequest request(Endpoint endpoint, ThreadLocalRandom random) throws IOException, InterruptedException {
+        switch (endpoint) {
+            case LIST:
+                return authorized("pokemon?pageNo=" + random.nextInt(Math.max(1, pokemonCount / pageSize))
+                        + "&pageSize=" + pageSize).GET().build();
+            case DETAIL:
+                return authorized("pokemon/" + (random.nextInt(pokemonCount) + 1)).GET().build();
+            case REVIEW_READ:
+                int reviewId = random.nextInt(reviewCount) + 1;
+                return authorized("pokemon/" + BenchmarkApplication.reviewPokemonId(reviewId, pokemonCount)
+                        + "/reviews/" + reviewId).GET().build();
+            case REVIEW_WRITE:
+                String review = "{\"title\":\"load\",\"content\":\"load test\",\"stars\":" + (random.nextInt(5) + 1) + "}";
+                return authorized("pokemon/" + (random.nextInt(pokemonCount) + 1) + "/reviews")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(review)).build();
+            default:
+                throw new IllegalArgumentException("Not a load endpoint " + endpoint.label());
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path) throws IOException, InterruptedException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token());
+    }
+
+    //shared by all clients, whoever finds the token stale logs in again and the others wait for it.
+    //a lock rather than synchronized, a virtual thread blocking on the login inside a monitor would pin its carrier
+    private String token() throws IOException, InterruptedException {
+        tokenLock.lock();
+        try {
+            return currentToken();
+        } finally {
+            tokenLock.unlock();
+        }
+    }
+
+    private String currentToken() throws IOException, InterruptedException {
+        if (token == null || System.currentTimeMillis() - tokenIssuedAt > TOKEN_REFRESH_MILLIS) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(post("auth/login", credentials()),
+                    HttpResponse.BodyHandlers.ofString());
+            stats.get(Endpoint.LOGIN).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    response.statusCode() == 200);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed with status " + response.statusCode());
+            }
+            token = objectMapper.readTree(response.body()).get("accessToken").asText();
+            tokenIssuedAt = System.currentTimeMillis();
+        }
+        return token;
+    }
+
+    private void register() throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(post("auth/register", credentials()), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Register failed with status " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private String credentials() {
+        return "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private Endpoint pickEndpoint() {
+        int value = ThreadLocalRandom.current().nextInt(mixWeights[mixWeights.length - 1]);
+        int i = 0;
+        while (value >= mixWeights[i]) {
+            i++;
+        }
+        return mixEndpoints[i];
+    }
+
+    private void report(double elapsedSeconds, Path output) throws IOException {
+        Files.createDirectories(output);
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%n%-14s %10s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().recorder.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            printRow(entry.getKey().label(), histogram, errors, elapsedSeconds);
+            writeDistribution(output.resolve(entry.getKey().label() + ".hgrm"), histogram);
+            if (entry.getKey() != Endpoint.LOGIN) {
+                total.add(histogram);
+                totalErrors += errors;
+            }
+        }
+        printRow("total", total, totalErrors, elapsedSeconds);
+        writeDistribution(output.resolve("total.hgrm"), total);
+        System.out.printf("%nPercentile distributions written to %s%n", output.toAbsolutePath());
+    }
+
+    private static void printRow(String label, Histogram histogram, long errors, double elapsedSeconds) {
+        System.out.printf("%-14s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f%n",
+                label, histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds, errors,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    //the .hgrm format can be plotted with the HdrHistogram plotter
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private String describeMix() {
+        StringBuilder description = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < mixEndpoints.length; i++) {
+            description.append(i == 0 ? "" : ",").append(mixEndpoints[i].label()).append(':')
+                    .append(mixWeights[i] - previous);
+            previous = mixWeights[i];
+        }
+        return description.toString();
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":", 2);
+            Endpoint endpoint = Endpoint.valueOf(pair[0].toUpperCase().replace('-', '_'));
+            if (endpoint == Endpoint.LOGIN) {
+                throw new IllegalArgumentException("Logins are driven by the token lifetime, not the mix");
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(endpoint, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return weights;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
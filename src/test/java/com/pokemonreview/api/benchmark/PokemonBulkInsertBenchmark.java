@@ -0,0 +1,70 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.service.PokemonService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//scores are pokemon per second
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PokemonBulkInsertBenchmark {
+
+    private static final int POKEMON = 1000;
+
+    private ConfigurableApplicationContext context;
+    private PokemonService pokemonService;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        pokemonService = context.getBean(PokemonService.class);
+    }
+
+    //keeps the table from growing across iterations
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        context.getBean(JdbcTemplate.class).update("delete from pokemon");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POKEMON)
+    public void singleInserts(Blackhole blackhole) {
+        for (PokemonDto pokemonDto : newPokemon()) {
+            blackhole.consume(pokemonService.createPokemon(pokemonDto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POKEMON)
+    public BulkResponse bulkUpsert() {
+        return pokemonService.upsertPokemon(newPokemon());
+    }
+
+    //fresh names every invocation so the bulk path inserts instead of updating
+    private List<PokemonDto> newPokemon() {
+        int prefix = invocation++;
+        List<PokemonDto> pokemonDtos = new ArrayList<>(POKEMON);
+        for (int i = 0; i < POKEMON; i++) {
+            pokemonDtos.add(PokemonDto.builder().name("pokemon" + prefix + "-" + i).type("fire").build());
+        }
+        return pokemonDtos;
+    }
+}
@@ -0,0 +1,66 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.PokemonFilter;
+import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.service.PokemonService;
+import com.pokemonreview.api.service.impl.KeysetCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PokemonListingBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1", "10000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private PokemonService pokemonService;
+    private String cursor;
+    //a third of the seeded pokemon are fire
+    private final PokemonFilter byType = PokemonFilter.builder().type("fire").sortBy("name").build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedPokemon(context, ROWS);
+        pokemonService = context.getBean(PokemonService.class);
+
+        //ids are seeded contiguously, so the cursor for page n is the last id of page n - 1
+        cursor = page == 1 ? null : KeysetCursor.encode((page - 1) * PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PokemonResponse offsetWithCount() {
+        return pokemonService.getAllPokemon(page - 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PokemonResponse keyset() {
+        return pokemonService.getAllPokemon(cursor, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public PokemonResponse keysetWithCount() {
+        return pokemonService.getAllPokemon(cursor, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public PokemonResponse filteredByTypeWithCount() {
+        return pokemonService.getAllPokemon(byType, (page - 1) / 3, PAGE_SIZE);
+    }
+}
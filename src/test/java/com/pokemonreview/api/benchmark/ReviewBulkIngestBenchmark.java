@@ -0,0 +1,71 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//scores are reviews per second, the target is at least 20k
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReviewBulkIngestBenchmark {
+
+    private static final int POKEMON = 100;
+    private static final int REVIEWS_PER_POKEMON = 50;
+    private static final int REVIEWS = POKEMON * REVIEWS_PER_POKEMON;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ReviewService reviewService;
+    private Map<Integer, List<ReviewDto>> request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        BenchmarkApplication.seedPokemon(context, POKEMON);
+        reviewService = context.getBean(ReviewService.class);
+
+        request = new LinkedHashMap<>();
+        for (int pokemonId = 1; pokemonId <= POKEMON; pokemonId++) {
+            List<ReviewDto> reviews = new ArrayList<>();
+            for (int i = 0; i < REVIEWS_PER_POKEMON; i++) {
+                reviews.add(ReviewDto.builder().title("title" + i).content("content").stars(1 + i % 5).build());
+            }
+            request.put(pokemonId, reviews);
+        }
+    }
+
+    //keeps the table from growing across iterations
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon_rating");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REVIEWS)
+    public BulkResponse bulkInsert() {
+        return reviewService.createReviews(request);
+    }
+}
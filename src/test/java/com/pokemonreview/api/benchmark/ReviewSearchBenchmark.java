@@ -0,0 +1,81 @@
+package com.pokemonreview.api.benchmark;
+
+import com.pokemonreview.api.dto.ReviewSearchHit;
+import com.pokemonreview.api.search.ReviewSearchIndex;
+import com.pokemonreview.api.service.ReviewSearchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//query latency over 1M reviews. the words are skewed like real text, term0 is in most reviews and
+//term1500 in a few thousand, so the params cover long and short posting lists
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReviewSearchBenchmark {
+
+    private static final int POKEMON = 10_000;
+    private static final int REVIEWS = 1_000_000;
+    private static final int VOCABULARY = 5000;
+    private static final int LIMIT = 20;
+
+    @Param({"term0", "term1500", "term0 term10", "term3 term40 term200"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ReviewSearchIndex reviewSearchIndex;
+    private ReviewSearchService reviewSearchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedPokemon(context, POKEMON);
+        seedReviewText(context.getBean(JdbcTemplate.class));
+        reviewSearchIndex = context.getBean(ReviewSearchIndex.class);
+        //the index was built on startup, before the seed
+        reviewSearchIndex.rebuild();
+        reviewSearchService = context.getBean(ReviewSearchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    //only the index lookup, the ids of the best matches
+    @Benchmark
+    public List<Integer> searchIndex() {
+        return reviewSearchIndex.search(query, LIMIT);
+    }
+
+    //what the endpoint does, the lookup plus reading the hits back from the database
+    @Benchmark
+    public List<ReviewSearchHit> searchReviews() {
+        return reviewSearchService.searchReviews(query, LIMIT);
+    }
+
+    private static void seedReviewText(JdbcTemplate jdbcTemplate) {
+        String vocabulary = IntStream.range(0, VOCABULARY).mapToObj(i -> "'term" + i + "'").collect(Collectors.joining(","));
+        String title = words(3);
+        String content = words(20);
+        jdbcTemplate.update(
+                "insert into review (id, title, content, stars, version, pokemon_id) " +
+                "select x, " + title + ", " + content + ", mod(x, 5) + 1, 0, mod(x - 1, ?) + 1 " +
+                "from system_range(1, ?) cross join (select array[" + vocabulary + "] as w) v",
+                POKEMON, REVIEWS);
+    }
+
+    //each word is drawn on its own, low numbers far more often than high ones
+    private static String words(int count) {
+        String word = "v.w[1 + cast(floor(power(rand(), 4) * " + VOCABULARY + ") as int)]";
+        return "concat_ws(' '" + (", " + word).repeat(count) + ")";
+    }
+}
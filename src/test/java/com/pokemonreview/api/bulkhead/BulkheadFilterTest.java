@@ -0,0 +1,89 @@
+package com.pokemonreview.api.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncContext;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+    private final BulkheadFilter filter;
+
+    public BulkheadFilterTest() {
+        for (Workload workload : Workload.values()) {
+            bulkheads.put(workload, new Bulkhead(workload.name().toLowerCase(), 1, Duration.ZERO, meterRegistry));
+        }
+        filter = new BulkheadFilter(bulkheads, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should answer 503 while the bulkhead of the workload is full")
+    public void rejectsWhenFull() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        //the second read arrives while the first still holds the only permit
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/pokemon"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/pokemon/1"), rejected,
+                        (innerRequest, innerResponse) -> Assertions.fail("should not have been let through")));
+
+        Assertions.assertThat(rejected.getStatus()).isEqualTo(503);
+        Assertions.assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(rejected.getContentAsString()).contains("\"statusCode\":503", "Too many read requests");
+        Assertions.assertThat(meterRegistry.get(Bulkhead.REJECTED_METRIC_NAME).tag("bulkhead", "read").counter().count()).isEqualTo(1);
+        Assertions.assertThat(bulkheads.get(Workload.READ).getActive()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the other workloads running while one is full")
+    public void isolatesWorkloads() throws Exception {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/pokemon/export"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), login,
+                            (innerRequest, innerResponse) -> innerResponse.getWriter().write("token"));
+                    filter.doFilter(new MockHttpServletRequest("PUT", "/api/pokemon/1/update"), write,
+                            (innerRequest, innerResponse) -> innerResponse.getWriter().write("updated"));
+                });
+
+        Assertions.assertThat(login.getContentAsString()).isEqualTo("token");
+        Assertions.assertThat(write.getContentAsString()).isEqualTo("updated");
+    }
+
+    @Test
+    @DisplayName("Should hold the permit of a streamed response until it completes")
+    public void releasesAfterAsyncCompletes() throws Exception {
+        MockHttpServletRequest streamRequest = new MockHttpServletRequest("GET", "/api/pokemon/stream");
+        streamRequest.setAsyncSupported(true);
+
+        filter.doFilter(streamRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        Assertions.assertThat(bulkheads.get(Workload.STREAM).getActive()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get(Bulkhead.ACTIVE_METRIC_NAME).tag("bulkhead", "stream").gauge().value()).isEqualTo(1);
+
+        AsyncContext asyncContext = streamRequest.getAsyncContext();
+        asyncContext.complete();
+        Assertions.assertThat(bulkheads.get(Workload.STREAM).getActive()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should sort requests into workloads by path and method")
+    public void classifiesWorkloads() {
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("POST", "/api/auth/register"))).isEqualTo(Workload.AUTH);
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("GET", "/api/pokemon/1/reviews"))).isEqualTo(Workload.READ);
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("POST", "/api/pokemon/create"))).isEqualTo(Workload.WRITE);
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("DELETE", "/api/pokemon/1/delete"))).isEqualTo(Workload.WRITE);
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("GET", "/api/pokemon/export"))).isEqualTo(Workload.EXPORT);
+        Assertions.assertThat(Workload.of(new MockHttpServletRequest("GET", "/api/pokemon/1/reviews/stream"))).isEqualTo(Workload.STREAM);
+    }
+}
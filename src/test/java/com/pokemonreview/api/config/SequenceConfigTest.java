@@ -0,0 +1,46 @@
+package com.pokemonreview.api.config;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.service.PokemonService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class SequenceConfigTest {
+
+    @Autowired
+    private SmartInitializingSingleton sequenceCatchUp;
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should move a sequence that lags behind existing ids past them")
+    public void catchesUpLaggingSequence() {
+        //what an identity column left behind, with the sequence schema update has just created
+        jdbcTemplate.update("insert into pokemon (id, name, type, version) values (1000, 'legacy', 'normal', 0)");
+        jdbcTemplate.execute("alter sequence pokemon_seq restart with 1");
+
+        try {
+            sequenceCatchUp.afterSingletonsInstantiated();
+
+            Assertions.assertThat(pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId())
+                    .isGreaterThan(1000);
+        } finally {
+            //the context and its database are shared with other tests
+            jdbcTemplate.update("delete from pokemon_rating where pokemon_id >= 1000");
+            jdbcTemplate.update("delete from pokemon where id >= 1000");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pokemonreview.api.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+public class VirtualThreadsTest {
+
+    @Test
+    @DisplayName("Should run tasks on virtual threads on java 21 and newer")
+    public void runsOnVirtualThreads() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21);
+
+        ExecutorService executor = VirtualThreads.newExecutor();
+        Object isVirtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+        executor.shutdown();
+
+        Assertions.assertThat(VirtualThreads.isSupported()).isTrue();
+        Assertions.assertThat(isVirtual).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start the virtual-threads profile before java 21")
+    public void failsFastBeforeJava21() {
+        Assumptions.assumeTrue(Runtime.version().feature() < 21);
+
+        Assertions.assertThat(VirtualThreads.isSupported()).isFalse();
+        Assertions.assertThatThrownBy(VirtualThreads::newExecutor)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21");
+    }
+}
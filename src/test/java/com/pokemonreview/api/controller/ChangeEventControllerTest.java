@@ -0,0 +1,61 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.controllers.ChangeEventController;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.events.ChangeEventType;
+import com.pokemonreview.api.exceptions.ChangeOffsetExpiredException;
+import com.pokemonreview.api.service.ChangeEventService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = ChangeEventController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class ChangeEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeEventService changeEventService;
+
+    @Test
+    @DisplayName("Should return the changes after an offset with their payload as json")
+    public void getChanges() throws Exception {
+        ChangeEventDto saved = ChangeEventDto.builder().offset(6).type(ChangeEventType.POKEMON_SAVED).pokemonId(1)
+                .payload("{\"id\":1,\"name\":\"pikachu\",\"type\":\"electric\"}").createdAt(new Date()).build();
+        when(changeEventService.getChanges(5, 2)).thenReturn(new ChangeEventResponse(List.of(saved), 6));
+
+        mockMvc.perform(get("/api/changes").param("after", "5").param("limit", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].offset", CoreMatchers.is(6)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].type", CoreMatchers.is("POKEMON_SAVED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].payload.name", CoreMatchers.is("pikachu")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextOffset", CoreMatchers.is(6)));
+    }
+
+    @Test
+    @DisplayName("Should answer 410 once the changes after an offset were removed")
+    public void getChangesExpired() throws Exception {
+        when(changeEventService.getChanges(0, 100)).thenThrow(new ChangeOffsetExpiredException("Changes after offset 0 are no longer kept"));
+
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(MockMvcResultMatchers.status().isGone());
+    }
+}
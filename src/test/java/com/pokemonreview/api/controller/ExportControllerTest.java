@@ -0,0 +1,55 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.controllers.ExportController;
+import com.pokemonreview.api.service.ExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = ExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("Should stream the catalog as ndjson")
+    public void exportCatalog() throws Exception {
+
+        String lines = "{\"id\":1,\"name\":\"pikachu\",\"type\":\"electric\",\"reviews\":[]}\n";
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(lines.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportCatalog(ArgumentMatchers.any());
+
+        MvcResult result = mockMvc.perform(get("/api/pokemon/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.content().string(lines));
+    }
+}
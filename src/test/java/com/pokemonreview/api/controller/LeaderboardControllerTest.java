@@ -0,0 +1,50 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.controllers.LeaderboardController;
+import com.pokemonreview.api.dto.TopPokemonDto;
+import com.pokemonreview.api.dto.TopPokemonResponse;
+import com.pokemonreview.api.service.LeaderboardService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = LeaderboardController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class LeaderboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @Test
+    @DisplayName("Should return the top pokemon of a type")
+    public void getTopPokemon() throws Exception {
+        TopPokemonDto pikachu = TopPokemonDto.builder().id(1).name("pikachu").type("electric")
+                .reviewCount(12).averageStars(4.5).score(4.2).build();
+        when(leaderboardService.getTopPokemon("electric", 5))
+                .thenReturn(new TopPokemonResponse(List.of(pikachu), 3.9, new Date()));
+
+        mockMvc.perform(get("/api/pokemon/top").param("type", "electric").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].score", CoreMatchers.is(4.2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.meanStars", CoreMatchers.is(3.9)));
+    }
+}
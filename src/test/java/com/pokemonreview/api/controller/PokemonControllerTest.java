@@ -2,7 +2,11 @@ package com.pokemonreview.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pokemonreview.api.controllers.PokemonController;
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonFilter;
 import com.pokemonreview.api.dto.PokemonResponse;
 import com.pokemonreview.api.dto.ReviewDto;
 import com.pokemonreview.api.models.Pokemon;
@@ -30,6 +34,9 @@ import java.util.Arrays;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -111,6 +118,63 @@ public class PokemonControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(responseDto.getContent().size())));
     }
 
+    @Test
+    @DisplayName("Should get a keyset page of pokemon and return the next cursor")
+    public void getAllPokemonKeyset() throws Exception {
+
+        PokemonResponse responseDto = PokemonResponse.builder()
+                .pageSize(10)
+                .last(false)
+                .nextCursor("MTA")
+                .content(Arrays.asList(pokemonDto)).build();
+
+        when(pokemonService.getAllPokemon("MA", 10, false)).thenReturn(responseDto);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("after", "MA")
+                .param("pageSize", "10"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.is("MTA")));
+    }
+
+    @Test
+    @DisplayName("Should get a filtered and sorted page of pokemon")
+    public void getAllPokemonFiltered() throws Exception {
+
+        PokemonFilter filter = new PokemonFilter("electric", "pi", null, "name", "desc");
+        PokemonResponse responseDto = PokemonResponse.builder()
+                .pageSize(10)
+                .last(true)
+                .content(Arrays.asList(pokemonDto)).build();
+
+        when(pokemonService.getAllPokemon(filter, 0, 10)).thenReturn(responseDto);
+        when(pokemonService.getPokemonListVersionTag(filter, responseDto)).thenReturn("pokemon-list-def");
+
+        mockMvc.perform(get("/api/pokemon")
+                        .param("type", "electric")
+                        .param("name", "pi")
+                        .param("sortBy", "name")
+                        .param("sortDir", "desc"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"pokemon-list-def\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is(pokemonDto.getName())));
+    }
+
+    @Test
+    @DisplayName("Should refuse a filtered listing paged by cursor")
+    public void getAllPokemonFilteredKeyset() throws Exception {
+
+        mockMvc.perform(get("/api/pokemon")
+                        .param("type", "electric")
+                        .param("keyset", "true"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(pokemonService, never()).getAllPokemon(ArgumentMatchers.any(PokemonFilter.class),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+    }
+
     @Test
     @DisplayName("Should get a pokemon and return the dto")
     public void getPokemon() throws Exception { //Exception refers to writeValueAsString and andExpect
@@ -128,13 +192,45 @@ public class PokemonControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.type", CoreMatchers.is(pokemonDto.getType())));
     }
 
+    @Test
+    @DisplayName("Should tag a pokemon with its version and answer a matching If-None-Match with 304")
+    public void getPokemonNotModified() throws Exception {
+
+        int pokemonId = 1;
+        when(pokemonService.getPokemonVersionTag(pokemonDto)).thenReturn("pokemon-1-3");
+        when(pokemonService.getPokemonById(pokemonId)).thenReturn(pokemonDto);
+
+        mockMvc.perform(get("/api/pokemon/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"pokemon-1-3\""));
+
+        mockMvc.perform(get("/api/pokemon/1").header("If-None-Match", "\"pokemon-1-3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        //the tag is taken from the body it describes, so the 304 reads it too
+        verify(pokemonService, times(2)).getPokemonById(pokemonId);
+    }
+
+    @Test
+    @DisplayName("Should answer an unchanged pokemon listing with 304")
+    public void getAllPokemonNotModified() throws Exception {
+
+        when(pokemonService.getPokemonListVersionTag(0, 10)).thenReturn("pokemon-list-abc");
+
+        mockMvc.perform(get("/api/pokemon").header("If-None-Match", "\"pokemon-list-abc\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(pokemonService, never()).getAllPokemon(0, 10);
+    }
+
 
     @Test
     @DisplayName("Should update a pokemon and return the dto")
     public void updatePokemon() throws Exception { //Exception refers to writeValueAsString and andExpect
 
         int pokemonId = 1;
-        when(pokemonService.updatePokemon(pokemonDto, pokemonId)).thenReturn(pokemonDto);
+        when(pokemonService.updatePokemon(pokemonDto, pokemonId, null)).thenReturn(pokemonDto);
 
         ResultActions response = mockMvc.perform(put("/api/pokemon/1/update")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -160,6 +256,28 @@ public class PokemonControllerTest {
         response.andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    @DisplayName("Should upsert pokemon in bulk and report each row")
+    public void upsertPokemon() throws Exception {
+
+        BulkResponse bulkResponse = BulkResponse.builder()
+                .created(1)
+                .updated(1)
+                .items(Arrays.asList(
+                        new BulkItemResult(null, 0, 1, BulkItemStatus.CREATED, null),
+                        new BulkItemResult(null, 1, 2, BulkItemStatus.UPDATED, null))).build();
+        when(pokemonService.upsertPokemon(Arrays.asList(pokemonDto, pokemonDto))).thenReturn(bulkResponse);
+
+        ResultActions response = mockMvc.perform(post("/api/pokemon/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(pokemonDto, pokemonDto))));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status", CoreMatchers.is("UPDATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].pokemonId").doesNotExist());
+    }
+
 
 
 }
@@ -2,10 +2,21 @@ package com.pokemonreview.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pokemonreview.api.controllers.ReviewController;
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonRatingDto;
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.QueuedReviewStatus;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewResponse;
+import com.pokemonreview.api.exceptions.PreconditionFailedException;
+import com.pokemonreview.api.exceptions.ReviewQueueClosedException;
+import com.pokemonreview.api.exceptions.ReviewQueueFullException;
 import com.pokemonreview.api.models.Pokemon;
 import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.service.ReviewQueueService;
 import com.pokemonreview.api.service.ReviewService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,14 +30,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -41,6 +57,9 @@ public class ReviewControllerTest {
     @MockBean
     private ReviewService reviewService;
 
+    @MockBean
+    private ReviewQueueService reviewQueueService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -91,7 +110,7 @@ public class ReviewControllerTest {
 
         int pokemonId = 1;
         int reviewId = 1;
-        when(reviewService.updateReview(pokemonId, reviewId, reviewDto)).thenReturn(reviewDto);
+        when(reviewService.updateReview(pokemonId, reviewId, reviewDto, null)).thenReturn(reviewDto);
 
         ResultActions response = mockMvc.perform(put("/api/pokemon/1/reviews/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -157,4 +176,167 @@ public class ReviewControllerTest {
         response.andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    @DisplayName("Should get the rating summary of a pokemon")
+    public void getRatingByPokemonId() throws Exception {
+
+        int pokemonId = 1;
+        PokemonRatingDto ratingDto = PokemonRatingDto.builder()
+                .pokemonId(pokemonId)
+                .reviewCount(1)
+                .averageStars(5)
+                .histogram(Map.of(1, 0, 2, 0, 3, 0, 4, 0, 5, 1)).build();
+        when(reviewService.getRatingByPokemonId(pokemonId)).thenReturn(ratingDto);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon/1/rating")
+                .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.reviewCount", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.averageStars", CoreMatchers.is(5.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.histogram.5", CoreMatchers.is(1)));
+    }
+
+    @Test
+    @DisplayName("Should get a page of reviews with the next cursor")
+    public void getReviewPage() throws Exception {
+
+        int pokemonId = 1;
+        ReviewResponse responseDto = ReviewResponse.builder()
+                .content(Arrays.asList(reviewDto))
+                .limit(1)
+                .nextCursor("MQ")
+                .last(false).build();
+        when(reviewService.getReviewsByPokemonId(pokemonId, "MA", 1)).thenReturn(responseDto);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon/1/reviews/page")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("after", "MA")
+                .param("limit", "1"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.is("MQ")));
+    }
+
+    @Test
+    @DisplayName("Should create reviews in bulk and report each item")
+    public void createReviews() throws Exception {
+
+        Map<Integer, List<ReviewDto>> request = Map.of(1, Arrays.asList(reviewDto, reviewDto));
+        BulkResponse bulkResponse = BulkResponse.builder()
+                .created(1)
+                .failed(1)
+                .items(Arrays.asList(
+                        new BulkItemResult(1, 0, 10, BulkItemStatus.CREATED, null),
+                        new BulkItemResult(1, 1, null, BulkItemStatus.FAILED, "Review is missing"))).build();
+        when(reviewService.createReviews(request)).thenReturn(bulkResponse);
+
+        ResultActions response = mockMvc.perform(post("/api/pokemon/reviews/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].id", CoreMatchers.is(10)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[1].status", CoreMatchers.is("FAILED")));
+    }
+
+    @Test
+    @DisplayName("Should answer an unchanged reviews listing with 304")
+    public void getReviewsNotModified() throws Exception {
+
+        int pokemonId = 1;
+        when(reviewService.getReviewsVersionTag(pokemonId)).thenReturn("reviews-1-7");
+
+        mockMvc.perform(get("/api/pokemon/1/reviews").header("If-None-Match", "\"reviews-1-7\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"reviews-1-7\""));
+
+        verify(reviewService, never()).getReviewsByPokemonId(pokemonId);
+    }
+
+    @Test
+    @DisplayName("Should reject an update whose If-Match is stale with 412")
+    public void updateReviewPreconditionFailed() throws Exception {
+
+        when(reviewService.updateReview(1, 1, reviewDto, "\"review-1-2\""))
+                .thenThrow(new PreconditionFailedException("Review was changed since it was read"));
+
+        mockMvc.perform(put("/api/pokemon/1/reviews/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"review-1-2\"")
+                        .content(objectMapper.writeValueAsString(reviewDto)))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Should report a concurrent edit as 409")
+    public void updateReviewConflict() throws Exception {
+
+        when(reviewService.updateReview(1, 1, reviewDto, null))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Review.class, 1));
+
+        mockMvc.perform(put("/api/pokemon/1/reviews/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDto)))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should accept a review posted with async=true and return its tracking id")
+    public void queueReview() throws Exception {
+        int pokemonId = 1;
+        when(reviewQueueService.queueReview(pokemonId, reviewDto))
+                .thenReturn(new QueuedReviewDto("abc", pokemonId, QueuedReviewStatus.QUEUED, null, null));
+
+        mockMvc.perform(post("/api/pokemon/1/reviews").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDto)))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string("Location", "/api/reviews/queued/abc"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.trackingId", CoreMatchers.is("abc")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("QUEUED")));
+
+        verify(reviewService, never()).createReview(ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After while the review queue is full")
+    public void queueReviewFull() throws Exception {
+        when(reviewQueueService.queueReview(ArgumentMatchers.eq(1), ArgumentMatchers.any()))
+                .thenThrow(new ReviewQueueFullException("Review queue is full, try again later"));
+
+        mockMvc.perform(post("/api/pokemon/1/reviews").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDto)))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 without Retry-After while the review queue is shutting down")
+    public void queueReviewClosed() throws Exception {
+        when(reviewQueueService.queueReview(ArgumentMatchers.eq(1), ArgumentMatchers.any()))
+                .thenThrow(new ReviewQueueClosedException("Review queue is shutting down"));
+
+        mockMvc.perform(post("/api/pokemon/1/reviews").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDto)))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Should return the outcome of a queued review")
+    public void getQueuedReview() throws Exception {
+        when(reviewQueueService.getQueuedReview("abc"))
+                .thenReturn(new QueuedReviewDto("abc", 1, QueuedReviewStatus.CREATED, 7, null));
+
+        mockMvc.perform(get("/api/reviews/queued/abc"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status", CoreMatchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.reviewId", CoreMatchers.is(7)));
+    }
 }
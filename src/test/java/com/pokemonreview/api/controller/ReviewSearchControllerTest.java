@@ -0,0 +1,55 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.controllers.ReviewSearchController;
+import com.pokemonreview.api.dto.ReviewSearchHit;
+import com.pokemonreview.api.exceptions.InvalidSearchQueryException;
+import com.pokemonreview.api.service.ReviewSearchService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = ReviewSearchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class ReviewSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewSearchService reviewSearchService;
+
+    @Test
+    @DisplayName("Should return the matching reviews")
+    public void searchReviews() throws Exception {
+        when(reviewSearchService.searchReviews("shiny", 5)).thenReturn(List.of(
+                ReviewSearchHit.builder().id(3).pokemonId(1).title("Shiny").content("content").stars(5).build()));
+
+        mockMvc.perform(get("/api/reviews/search").param("q", "shiny").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].pokemonId", CoreMatchers.is(1)));
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for an empty query")
+    public void searchReviewsEmptyQuery() throws Exception {
+        when(reviewSearchService.searchReviews(" ", 20)).thenThrow(new InvalidSearchQueryException("Search query must not be empty"));
+
+        mockMvc.perform(get("/api/reviews/search").param("q", " "))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
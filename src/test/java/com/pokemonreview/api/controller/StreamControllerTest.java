@@ -0,0 +1,70 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.controllers.StreamController;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.PokemonStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = StreamController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class StreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PokemonStreamService pokemonStreamService;
+
+    @Test
+    @DisplayName("Should stream pokemon as ndjson")
+    public void streamPokemons() throws Exception {
+        when(pokemonStreamService.streamPokemon(5, 2)).thenReturn(Flux.just(
+                PokemonDto.builder().id(6).name("pikachu").type("electric").build(),
+                PokemonDto.builder().id(7).name("raichu").type("electric").build()));
+
+        MvcResult result = mockMvc.perform(get("/api/pokemon/stream").param("afterId", "5").param("limit", "2"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"id\":6,\"name\":\"pikachu\",\"type\":\"electric\"}\n" +
+                        "{\"id\":7,\"name\":\"raichu\",\"type\":\"electric\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Should stream the reviews of a pokemon as ndjson")
+    public void streamReviewsByPokemonId() throws Exception {
+        when(pokemonStreamService.streamReviewsByPokemonId(1)).thenReturn(Flux.just(
+                ReviewDto.builder().id(3).title("title").content("content").stars(5).build()));
+
+        MvcResult result = mockMvc.perform(get("/api/pokemon/1/reviews/stream"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"id\":3,\"title\":\"title\",\"content\":\"content\",\"stars\":5}\n"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.pokemonreview.api.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.LoginDto;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.RegisterDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.repository.RoleRepository;
+import com.pokemonreview.api.service.PokemonService;
+import com.pokemonreview.api.service.ReviewService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+//with the prometheus registry tests leave out by default, for the scrape endpoint
+@AutoConfigureMetrics
+@SpringBootTest(properties = "app.metrics.sql.expose-header=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void init() {
+        if (roleRepository.findByName("USER").isEmpty()) {
+            Role role = new Role();
+            role.setName("USER");
+            roleRepository.save(role);
+        }
+    }
+
+    @Test
+    @DisplayName("Should time each layer of a request and count the statements it ran")
+    public void detailRequestIsInstrumented() throws Exception {
+        String token = login();
+        int pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        //otherwise the detail read is a second-level cache hit that runs no statement at all
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/api/pokemon/" + pokemonId).header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertTimed("controller", "PokemonController", "pokemonDetail");
+        assertTimed("service", "PokemonServiceImpl", "getPokemonById");
+        assertTimed("security", "JWTGenerator", "getClaimsFromJWT");
+        assertTimed("security", "CustomUserDetailsService", "loadUserByUsername");
+
+        DistributionSummary statements = meterRegistry.find(SqlStatementCountFilter.METRIC_NAME)
+                .tags("method", "GET", "uri", "/api/pokemon/{id}").summary();
+        Assertions.assertThat(statements).isNotNull();
+        Assertions.assertThat(statements.count()).isEqualTo(1);
+        Assertions.assertThat(statements.max()).isPositive();
+    }
+
+    //guards against N+1 regressions, the lazy Review.pokemon must not be loaded per review
+    @Test
+    @DisplayName("Should list reviews with the same number of statements however many there are")
+    public void reviewListingIsNotNPlusOne() throws Exception {
+        String token = login();
+        int fewId = createPokemonWithReviews("bulbasaur", 1);
+        int manyId = createPokemonWithReviews("squirtle", 10);
+
+        Assertions.assertThat(listReviewsStatementCount(manyId, token)).isEqualTo(listReviewsStatementCount(fewId, token));
+    }
+
+    private int createPokemonWithReviews(String name, int reviews) {
+        int pokemonId = pokemonService.createPokemon(PokemonDto.builder().name(name).type("water").build()).getId();
+        for (int i = 0; i < reviews; i++) {
+            reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(3).build());
+        }
+        return pokemonId;
+    }
+
+    private int listReviewsStatementCount(int pokemonId, String token) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/pokemon/" + pokemonId + "/reviews").header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        return Integer.parseInt(result.getResponse().getHeader(SqlStatementCountFilter.HEADER_NAME));
+    }
+
+    private void assertTimed(String layer, String className, String method) {
+        Assertions.assertThat(meterRegistry.find(MethodTimingAspect.METRIC_NAME)
+                        .tags("layer", layer, "class", className, "method", method, "exception", "none").timer())
+                .as("%s.%s", className, method)
+                .isNotNull()
+                .satisfies(timer -> Assertions.assertThat(timer.count()).isPositive());
+    }
+
+    private String login() throws Exception {
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setUsername("misty");
+        registerDto.setPassword("starmie");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerDto)));
+
+        LoginDto loginDto = new LoginDto();
+        loginDto.setUsername("misty");
+        loginDto.setPassword("starmie");
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    @Test
+    @DisplayName("Should let Prometheus scrape without a token and keep the other metrics behind one")
+    public void scrapesWithoutToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("jvm_memory_used_bytes")));
+        //up or down depends on what the test database and the r2dbc url reach, only the login matters here
+        mockMvc.perform(get("/actuator/health")).andExpect(MockMvcResultMatchers.status().is(Matchers.not(401)));
+        mockMvc.perform(get("/actuator/metrics")).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
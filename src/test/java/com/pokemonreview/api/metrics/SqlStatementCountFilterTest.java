@@ -0,0 +1,64 @@
+package com.pokemonreview.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class SqlStatementCountFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    //stands in for a controller that runs three statements and then writes its body
+    private final FilterChain chain = (request, response) -> {
+        counter.inspect("select 1");
+        counter.inspect("select 2");
+        counter.inspect("select 3");
+        response.getWriter().write("[]");
+    };
+
+    @Test
+    @DisplayName("Should expose the statement count as a header and record it as a metric")
+    public void exposesHeaderAndMetric() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatementCountFilter(meterRegistry, true, 20).doFilter(new MockHttpServletRequest("GET", "/api/pokemon"), response, chain);
+
+        Assertions.assertThat(response.getHeader(SqlStatementCountFilter.HEADER_NAME)).isEqualTo("3");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("[]");
+        DistributionSummary summary = meterRegistry.find(SqlStatementCountFilter.METRIC_NAME).tags("method", "GET").summary();
+        Assertions.assertThat(summary).isNotNull();
+        Assertions.assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should only record the metric when the header is off")
+    public void headerOff() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new SqlStatementCountFilter(meterRegistry, false, 20).doFilter(new MockHttpServletRequest("GET", "/api/pokemon"), response, chain);
+
+        Assertions.assertThat(response.getHeader(SqlStatementCountFilter.HEADER_NAME)).isNull();
+        Assertions.assertThat(meterRegistry.find(SqlStatementCountFilter.METRIC_NAME).summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should warn when a request runs more statements than the threshold")
+    public void warnsAboveThreshold(CapturedOutput output) throws Exception {
+        new SqlStatementCountFilter(meterRegistry, false, 3).doFilter(new MockHttpServletRequest("GET", "/api/pokemon"), new MockHttpServletResponse(), chain);
+        Assertions.assertThat(output.getOut()).doesNotContain("SQL statements");
+
+        new SqlStatementCountFilter(meterRegistry, false, 2).doFilter(new MockHttpServletRequest("GET", "/api/pokemon"), new MockHttpServletResponse(), chain);
+        Assertions.assertThat(output.getOut()).contains("GET /api/pokemon ran 3 SQL statements, more than the threshold of 2");
+    }
+}
@@ -0,0 +1,47 @@
+package com.pokemonreview.api.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.events.ChangeEventType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+public class FileChangeEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should append one json line per event across batches")
+    public void appendsJsonLines(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("changes.jsonl");
+        FileChangeEventSink sink = new FileChangeEventSink(file, objectMapper);
+
+        sink.publish(List.of(
+                event(1, ChangeEventType.POKEMON_SAVED, null, "{\"id\":7,\"name\":\"pikachu\",\"type\":\"electric\"}"),
+                event(2, ChangeEventType.REVIEW_SAVED, 3, "{\"id\":3,\"title\":\"title\",\"content\":\"content\",\"stars\":5}")));
+        sink.publish(List.of(event(3, ChangeEventType.REVIEW_DELETED, 3, null)));
+
+        List<String> lines = Files.readAllLines(file);
+        Assertions.assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        Assertions.assertThat(first.get("offset").asLong()).isEqualTo(1);
+        Assertions.assertThat(first.get("payload").get("name").asText()).isEqualTo("pikachu");
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        Assertions.assertThat(last.get("type").asText()).isEqualTo("REVIEW_DELETED");
+        Assertions.assertThat(last.get("reviewId").asInt()).isEqualTo(3);
+        Assertions.assertThat(last.has("payload")).isFalse();
+    }
+
+    private static ChangeEventDto event(long offset, ChangeEventType type, Integer reviewId, String payload) {
+        return ChangeEventDto.builder().offset(offset).type(type).pokemonId(7).reviewId(reviewId)
+                .payload(payload).createdAt(new Date()).build();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -79,20 +80,47 @@ public class PokemonRepositoryTests {
     }
 
     @Test
-    @DisplayName("Should return pokemon by type")
+    @DisplayName("Should return every pokemon of a type")
     public  void findPokemonByTypeOk() {
 
         //arrange
-        Pokemon pokemon = Pokemon.builder()
+        Pokemon pikachu = Pokemon.builder()
                 .name("pikachu")
                 .type("electric").build();
+        Pokemon raichu = Pokemon.builder()
+                .name("raichu")
+                .type("electric").build();
+        Pokemon bulbasaur = Pokemon.builder()
+                .name("bulbasaur")
+                .type("grass").build();
 
         //act
-        pokemonRepository.save(pokemon);
-        Pokemon savedPokemon = pokemonRepository.findByType(pokemon.getType()).get();
+        pokemonRepository.save(pikachu);
+        pokemonRepository.save(raichu);
+        pokemonRepository.save(bulbasaur);
+        List<Pokemon> pokemonList = pokemonRepository.findByType("electric");
 
         //assert
-        Assertions.assertThat(savedPokemon).isNotNull();
+        Assertions.assertThat(pokemonList).extracting(Pokemon::getName).containsExactlyInAnyOrder("pikachu", "raichu");
+    }
+
+    @Test
+    @DisplayName("Should return pokemon after a given id")
+    public  void findPokemonAfterIdOk() {
+
+        //arrange
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder()
+                .name("pikachu")
+                .type("electric").build());
+        Pokemon raichu = pokemonRepository.save(Pokemon.builder()
+                .name("raichu")
+                .type("electric").build());
+
+        //act
+        List<Pokemon> pokemonList = pokemonRepository.findByIdGreaterThanOrderByIdAsc(pikachu.getId(), PageRequest.of(0, 10));
+
+        //assert
+        Assertions.assertThat(pokemonList).extracting(Pokemon::getName).containsExactly(raichu.getName());
     }
 
     @Test
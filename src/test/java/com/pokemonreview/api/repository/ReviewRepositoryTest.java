@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,10 +19,12 @@ import java.util.Optional;
 class ReviewRepositoryTest {
 
     private ReviewRepository reviewRepository;
+    private PokemonRepository pokemonRepository;
 
     @Autowired
-    public ReviewRepositoryTest(ReviewRepository reviewRepository) {
+    public ReviewRepositoryTest(ReviewRepository reviewRepository, PokemonRepository pokemonRepository) {
         this.reviewRepository = reviewRepository;
+        this.pokemonRepository = pokemonRepository;
     }
 
     @Test
@@ -110,4 +113,27 @@ class ReviewRepositoryTest {
         Assertions.assertThat(reviewReturn).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should return the reviews of a pokemon after a given id")
+    public void findReviewsAfterIdOk() {
+
+        Pokemon pokemon = pokemonRepository.save(Pokemon.builder()
+                .name("pikachu")
+                .type("electric").build());
+
+        for (int i = 0; i < 5; i++) {
+            reviewRepository.save(Review.builder().title("title" + i)
+                    .content("content")
+                    .stars(5)
+                    .pokemon(pokemon).build());
+        }
+
+        List<Review> firstPage = reviewRepository.findByPokemonIdAndIdGreaterThanOrderByIdAsc(pokemon.getId(), 0, PageRequest.of(0, 2));
+        List<Review> secondPage = reviewRepository.findByPokemonIdAndIdGreaterThanOrderByIdAsc(pokemon.getId(),
+                firstPage.get(1).getId(), PageRequest.of(0, 2));
+
+        Assertions.assertThat(firstPage).extracting(Review::getTitle).containsExactly("title0", "title1");
+        Assertions.assertThat(secondPage).extracting(Review::getTitle).containsExactly("title2", "title3");
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.pokemonreview.api.security;
+
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.models.UserEntity;
+import com.pokemonreview.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+    private UserEntity user;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(userRepository, meterRegistry);
+
+        Role role = new Role();
+        role.setName("USER");
+
+        user = new UserEntity();
+        user.setUsername("ash");
+        user.setPassword("password");
+        user.setRoles(Collections.singletonList(role));
+    }
+
+    @Test
+    @DisplayName("Should load a user once and serve it from the cache afterwards")
+    public void loadUserByUsernameCached() {
+
+        when(userRepository.findByUsername("ash")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("ash");
+        UserDetails second = userDetailsService.loadUserByUsername("ash");
+
+        verify(userRepository, times(1)).findByUsername("ash");
+        Assertions.assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not hand out the cached instance")
+    public void loadUserByUsernameCopy() {
+
+        when(userRepository.findByUsername("ash")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("ash");
+        ((User) first).eraseCredentials();
+
+        Assertions.assertThat(userDetailsService.loadUserByUsername("ash").getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    @DisplayName("Should reload a user after it was evicted")
+    public void evictUserOk() {
+
+        when(userRepository.findByUsername("ash")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("ash");
+        userDetailsService.evictUser("ash");
+        userDetailsService.loadUserByUsername("ash");
+
+        verify(userRepository, times(2)).findByUsername("ash");
+    }
+
+    @Test
+    @DisplayName("Should throw when the user does not exist")
+    public void loadUserByUsernameNotFound() {
+
+        when(userRepository.findByUsername("misty")).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> userDetailsService.loadUserByUsername("misty"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.pokemonreview.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.AuthResponseDTO;
+import com.pokemonreview.api.dto.LoginDto;
+import com.pokemonreview.api.dto.RegisterDto;
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.repository.RoleRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "app.security.jwt.embed-authorities=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class JWTAuthenticationEmbeddedModeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JWTGenerator jwtGenerator;
+
+    @SpyBean
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    public void init() {
+        if (roleRepository.findByName("USER").isEmpty()) {
+            Role role = new Role();
+            role.setName("USER");
+            roleRepository.save(role);
+        }
+    }
+
+    @Test
+    @DisplayName("Should authenticate from the token claims without a user lookup")
+    public void authenticatedRequest() throws Exception {
+
+        String token = login();
+        clearInvocations(userDetailsService);
+
+        mockMvc.perform(get("/api/pokemon").header("Authorization", "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(userDetailsService, never()).loadUserByUsername(Mockito.anyString());
+        Assertions.assertThat(jwtGenerator.getClaimsFromJWT(token).get("roles", List.class)).containsExactly("USER");
+    }
+
+    private String login() throws Exception {
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setUsername("ash");
+        registerDto.setPassword("pikachu");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerDto)));
+
+        LoginDto loginDto = new LoginDto();
+        loginDto.setUsername("ash");
+        loginDto.setPassword("pikachu");
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+}
@@ -0,0 +1,50 @@
+package com.pokemonreview.api.security;
+
+import io.jsonwebtoken.Claims;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+public class JWTGeneratorTest {
+
+    private JWTGenerator jwtGenerator;
+    private String token;
+
+    @BeforeEach
+    public void init() {
+        jwtGenerator = new JWTGenerator();
+        token = jwtGenerator.generateToken(new UsernamePasswordAuthenticationToken("ash", "password"));
+    }
+
+    @Test
+    @DisplayName("Should return the verified claims of a token")
+    public void getClaimsFromJWTOk() {
+
+        Claims claims = jwtGenerator.getClaimsFromJWT(token);
+
+        Assertions.assertThat(claims.getSubject()).isEqualTo("ash");
+        Assertions.assertThat(claims.getExpiration()).isInTheFuture();
+    }
+
+    @Test
+    @DisplayName("Should serve a token parsed before from the cache")
+    public void getClaimsFromJWTCached() {
+
+        Claims claims = jwtGenerator.getClaimsFromJWT(token);
+
+        Assertions.assertThat(jwtGenerator.getClaimsFromJWT(token)).isSameAs(claims);
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token")
+    public void getClaimsFromJWTTampered() {
+
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        Assertions.assertThatThrownBy(() -> jwtGenerator.getClaimsFromJWT(tampered))
+                .isInstanceOf(AuthenticationCredentialsNotFoundException.class);
+    }
+}
@@ -0,0 +1,176 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.ChangeEventType;
+import com.pokemonreview.api.exceptions.ChangeOffsetExpiredException;
+import com.pokemonreview.api.outbox.ChangeEventSink;
+import com.pokemonreview.api.outbox.InMemoryChangeEventSink;
+import com.pokemonreview.api.outbox.OutboxRelay;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+//not transactional, outbox rows only reach the relay once they are committed
+@SpringBootTest(properties = {"app.outbox.sink=memory", "app.outbox.relay-interval=PT1H"})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class ChangeEventStreamTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ChangeEventSink changeEventSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long start;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon_rating");
+        jdbcTemplate.update("delete from pokemon");
+        //whatever earlier tests left in the outbox gets its offsets now, each test reads from past them
+        outboxRelay.relay();
+        jdbcTemplate.update("update outbox_relay set pruned_position = 0");
+        sink().clear();
+        start = jdbcTemplate.queryForObject("select assigned_position from outbox_relay", Long.class);
+    }
+
+    @Test
+    @DisplayName("Should relay every mutation to the sink in order with gapless offsets")
+    public void relaysMutationsInOrder() {
+        int pikachu = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        ReviewDto review = reviewService.createReview(pikachu, ReviewDto.builder().title("title").content("content").stars(4).build());
+        reviewService.updateReview(pikachu, review.getId(), ReviewDto.builder().title("title").content("better").stars(5).build());
+        reviewService.deleteReview(pikachu, review.getId());
+        pokemonService.deletePokemonId(pikachu);
+
+        Assertions.assertThat(changeEventService.getChanges(start, 100).getContent()).isEmpty();
+        outboxRelay.relay();
+
+        List<ChangeEventDto> published = sink().events();
+        Assertions.assertThat(published).extracting(ChangeEventDto::getType).containsExactly(
+                ChangeEventType.POKEMON_SAVED, ChangeEventType.REVIEW_SAVED, ChangeEventType.REVIEW_SAVED,
+                ChangeEventType.REVIEW_DELETED, ChangeEventType.POKEMON_DELETED);
+        Assertions.assertThat(published).extracting(ChangeEventDto::getOffset)
+                .containsExactly(start + 1, start + 2, start + 3, start + 4, start + 5);
+        Assertions.assertThat(published).extracting(ChangeEventDto::getPokemonId).containsOnly(pikachu);
+        Assertions.assertThat(published.get(0).getPayload()).contains("\"name\":\"pikachu\"");
+        Assertions.assertThat(published.get(2).getReviewId()).isEqualTo(review.getId());
+        Assertions.assertThat(published.get(2).getPayload()).contains("\"content\":\"better\"");
+        Assertions.assertThat(published.get(4).getPayload()).isNull();
+
+        Assertions.assertThat(changeEventService.getChanges(start, 100).getContent()).isEqualTo(published);
+    }
+
+    @Test
+    @DisplayName("Should let a consumer resume from the last offset it read")
+    public void resumesFromOffset() {
+        pokemonService.upsertPokemon(List.of(
+                PokemonDto.builder().name("pikachu").type("electric").build(),
+                PokemonDto.builder().name("raichu").type("electric").build(),
+                PokemonDto.builder().name("pichu").type("electric").build()));
+        outboxRelay.relay();
+
+        ChangeEventResponse first = changeEventService.getChanges(start, 2);
+        ChangeEventResponse second = changeEventService.getChanges(first.getNextOffset(), 2);
+        ChangeEventResponse third = changeEventService.getChanges(second.getNextOffset(), 2);
+
+        Assertions.assertThat(first.getContent()).hasSize(2);
+        Assertions.assertThat(first.getNextOffset()).isEqualTo(start + 2);
+        Assertions.assertThat(second.getContent()).extracting(ChangeEventDto::getOffset).containsExactly(start + 3);
+        Assertions.assertThat(third.getContent()).isEmpty();
+        Assertions.assertThat(third.getNextOffset()).isEqualTo(start + 3);
+    }
+
+    @Test
+    @DisplayName("Should not record a change whose transaction rolled back")
+    public void rolledBackChangeIsNotRecorded() {
+        long before = outboxEventRepository.count();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Assertions.assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            pokemonService.createPokemon(PokemonDto.builder().name("missingno").type("bird").build());
+            throw new IllegalStateException("rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        outboxRelay.relay();
+
+        Assertions.assertThat(outboxEventRepository.count()).isEqualTo(before);
+        Assertions.assertThat(sink().events()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refuse an offset whose changes were removed after the retention")
+    public void refusesPrunedOffset() {
+        pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build());
+        pokemonService.createPokemon(PokemonDto.builder().name("raichu").type("electric").build());
+        outboxRelay.relay();
+        jdbcTemplate.update("update outbox_event set published_at = timestamp '2000-01-01 00:00:00' where stream_position is not null");
+        outboxRelay.relay();
+
+        Assertions.assertThatThrownBy(() -> changeEventService.getChanges(start, 100))
+                .isInstanceOf(ChangeOffsetExpiredException.class);
+        Assertions.assertThat(changeEventService.getChanges(start + 2, 100).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep changes created before the retention until they were published for as long")
+    public void keepsLatePublishedChanges() {
+        pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build());
+        pokemonService.createPokemon(PokemonDto.builder().name("raichu").type("electric").build());
+        jdbcTemplate.update("update outbox_event set created_at = timestamp '2000-01-01 00:00:00' where stream_position is null");
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        Assertions.assertThat(changeEventService.getChanges(start, 100).getContent()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not prune past a change still inside the retention")
+    public void prunesOnlyUpToRetainedChange() {
+        pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build());
+        pokemonService.createPokemon(PokemonDto.builder().name("raichu").type("electric").build());
+        outboxRelay.relay();
+        //another instance with a clock behind published the later row
+        jdbcTemplate.update("update outbox_event set published_at = timestamp '2000-01-01 00:00:00' where stream_position <> ?", start + 1);
+        outboxRelay.relay();
+
+        Assertions.assertThat(changeEventService.getChanges(start, 100).getContent())
+                .extracting(ChangeEventDto::getOffset)
+                .containsExactly(start + 1, start + 2);
+    }
+
+    private InMemoryChangeEventSink sink() {
+        return (InMemoryChangeEventSink) changeEventSink;
+    }
+}
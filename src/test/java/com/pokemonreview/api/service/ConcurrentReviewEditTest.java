@@ -0,0 +1,120 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PreconditionFailedException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//every thread increments a counter kept in the review content, a lost update would leave the total short.
+//the first reviews of a pokemon race on its rating row, a lost one would leave the count short
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class ConcurrentReviewEditTest {
+
+    private static final int THREADS = 32;
+    private static final int INCREMENTS_PER_THREAD = 3;
+    private static final int FIRST_REVIEW_POKEMON = 20;
+    private static final int FIRST_REVIEW_THREADS = 8;
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Test
+    @DisplayName("Should not lose any update when 32 threads edit the same review")
+    public void noLostUpdates() throws Exception {
+        int pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        int reviewId = reviewService.createReview(pokemonId, ReviewDto.builder().title("counter").content("0").stars(1).build()).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                    while (true) {
+                        ReviewDto current = reviewService.getReviewById(reviewId, pokemonId);
+                        String tag = reviewService.getReviewVersionTag(current);
+                        ReviewDto next = ReviewDto.builder()
+                                .title(current.getTitle())
+                                .content(String.valueOf(Integer.parseInt(current.getContent()) + 1))
+                                .stars(current.getStars() % 5 + 1).build();
+                        try {
+                            reviewService.updateReview(pokemonId, reviewId, next, "\"" + tag + "\"");
+                            break;
+                        } catch (PreconditionFailedException | OptimisticLockingFailureException ex) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int expected = THREADS * INCREMENTS_PER_THREAD;
+        Assertions.assertThat(reviewService.getReviewById(reviewId, pokemonId).getContent()).isEqualTo(String.valueOf(expected));
+        Assertions.assertThat(reviewService.getRatingByPokemonId(pokemonId).getReviewCount()).isEqualTo(1);
+        //the threads really did collide, otherwise the run proves nothing
+        Assertions.assertThat(conflicts.get()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should count every review when the first reviews of a pokemon race to create its rating")
+    public void concurrentFirstReviews() throws Exception {
+        List<Integer> pokemonIds = new ArrayList<>();
+        for (int i = 0; i < FIRST_REVIEW_POKEMON; i++) {
+            pokemonIds.add(pokemonService.createPokemon(PokemonDto.builder().name("racer" + i).type("electric").build()).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(FIRST_REVIEW_THREADS);
+        try {
+            for (int pokemonId : pokemonIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < FIRST_REVIEW_THREADS; thread++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return reviewService.createReview(pokemonId, ReviewDto.builder().title("first").content("first").stars(4).build());
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int pokemonId : pokemonIds) {
+            Assertions.assertThat(reviewService.getRatingByPokemonId(pokemonId).getReviewCount()).isEqualTo(FIRST_REVIEW_THREADS);
+            Assertions.assertThat(reviewService.getRatingByPokemonId(pokemonId).getAverageStars()).isEqualTo(4.0);
+        }
+    }
+}
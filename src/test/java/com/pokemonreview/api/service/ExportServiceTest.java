@@ -0,0 +1,103 @@
+package com.pokemonreview.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.service.impl.ExportServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({ExportServiceImpl.class, JacksonAutoConfiguration.class})
+public class ExportServiceTest {
+
+    private static final int POKEMON = 20000;
+    private static final int REVIEWS = 60000;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("insert into pokemon (id, name, type) " +
+                "select x, concat('pokemon', x), 'normal' from system_range(1, ?)", POKEMON);
+        //the last pokemon is left without reviews
+        jdbcTemplate.update("insert into review (id, title, content, stars, pokemon_id) " +
+                "select x, 'title', 'content', mod(x, 5) + 1, mod(x, ?) + 1 from system_range(1, ?)", POKEMON - 1, REVIEWS);
+    }
+
+    @Test
+    @DisplayName("Should stream every pokemon with its reviews as one json line each")
+    public void exportCatalogOk() throws IOException {
+
+        LineCountingOutputStream output = new LineCountingOutputStream();
+
+        exportService.exportCatalog(output);
+
+        Assertions.assertThat(output.lines).isEqualTo(POKEMON);
+        Assertions.assertThat(output.reviews).isEqualTo(REVIEWS);
+        Assertions.assertThat(output.lastLine.get("id").asInt()).isEqualTo(POKEMON);
+        Assertions.assertThat(output.lastLine.get("reviews")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should export with a single forward-only query and no managed entities")
+    public void exportCatalogStreams() throws IOException {
+
+        Session session = entityManager.unwrap(Session.class);
+        Statistics statistics = session.getSessionFactory().getStatistics();
+        statistics.clear();
+
+        exportService.exportCatalog(OutputStream.nullOutputStream());
+
+        //nothing accumulates in the persistence context, so memory does not grow with the catalog
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getEntityLoadCount()).isZero();
+        Assertions.assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    private class LineCountingOutputStream extends OutputStream {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private int lines;
+        private int reviews;
+        private JsonNode lastLine;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b != '\n') {
+                line.write(b);
+                return;
+            }
+            lastLine = objectMapper.readTree(line.toString(StandardCharsets.UTF_8));
+            reviews += lastLine.get("reviews").size();
+            lines++;
+            line.reset();
+        }
+    }
+}
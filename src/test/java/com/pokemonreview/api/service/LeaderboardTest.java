@@ -0,0 +1,121 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.TopPokemonDto;
+import com.pokemonreview.api.dto.TopPokemonResponse;
+import com.pokemonreview.api.leaderboard.PokemonLeaderboard;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+//not transactional, the leaderboard only picks up changes once they are committed
+@SpringBootTest(properties = "app.leaderboard.refresh-interval=PT1H")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class LeaderboardTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private PokemonLeaderboard pokemonLeaderboard;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int pikachu;
+    private int raichu;
+    private int bulbasaur;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon_rating");
+        jdbcTemplate.update("delete from pokemon");
+
+        pikachu = createPokemon("pikachu", "electric");
+        raichu = createPokemon("raichu", "electric");
+        bulbasaur = createPokemon("bulbasaur", "grass");
+        createPokemon("pichu", "electric");
+        review(pikachu, 5);
+        review(raichu, 5, 5, 5, 5, 5, 5, 5, 5, 4, 4);
+        review(bulbasaur, 2, 3, 3);
+        pokemonLeaderboard.reload();
+    }
+
+    @Test
+    @DisplayName("Should rank many good reviews above a single perfect one")
+    public void ranksByBayesianAverage() {
+        TopPokemonResponse response = leaderboardService.getTopPokemon(null, 10);
+
+        //61 stars over 14 reviews
+        Assertions.assertThat(response.getMeanStars()).isCloseTo(61 / 14.0, Assertions.within(1e-9));
+        Assertions.assertThat(response.getContent()).extracting(TopPokemonDto::getId).containsExactly(raichu, pikachu, bulbasaur);
+        TopPokemonDto first = response.getContent().get(0);
+        Assertions.assertThat(first.getAverageStars()).isCloseTo(4.8, Assertions.within(1e-9));
+        Assertions.assertThat(first.getScore()).isCloseTo((10 * 61 / 14.0 + 48) / 20, Assertions.within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should rank within a type and cap the list at the limit")
+    public void ranksWithinType() {
+        Assertions.assertThat(leaderboardService.getTopPokemon("electric", 1).getContent())
+                .extracting(TopPokemonDto::getId).containsExactly(raichu);
+        Assertions.assertThat(leaderboardService.getTopPokemon("grass", 10).getContent())
+                .extracting(TopPokemonDto::getId).containsExactly(bulbasaur);
+        Assertions.assertThat(leaderboardService.getTopPokemon("water", 10).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep serving the last ranking until the next refresh")
+    public void servesLastRankingUntilRefresh() {
+        review(pikachu, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5);
+
+        Assertions.assertThat(leaderboardService.getTopPokemon(null, 1).getContent())
+                .extracting(TopPokemonDto::getId).containsExactly(raichu);
+
+        pokemonLeaderboard.refresh();
+
+        Assertions.assertThat(leaderboardService.getTopPokemon(null, 1).getContent())
+                .extracting(TopPokemonDto::getId).containsExactly(pikachu);
+    }
+
+    @Test
+    @DisplayName("Should follow deleted reviews, deleted pokemon and type changes on refresh")
+    public void followsChanges() {
+        int reviewId = reviewService.getReviewsByPokemonId(pikachu).get(0).getId();
+        reviewService.deleteReview(pikachu, reviewId);
+        pokemonService.deletePokemonId(raichu);
+        pokemonService.updatePokemon(PokemonDto.builder().name("bulbasaur").type("poison").build(), bulbasaur);
+
+        pokemonLeaderboard.refresh();
+
+        TopPokemonResponse response = leaderboardService.getTopPokemon(null, 10);
+        Assertions.assertThat(response.getContent()).extracting(TopPokemonDto::getId).containsExactly(bulbasaur);
+        Assertions.assertThat(response.getContent().get(0).getType()).isEqualTo("poison");
+        Assertions.assertThat(response.getMeanStars()).isCloseTo(8 / 3.0, Assertions.within(1e-9));
+        Assertions.assertThat(leaderboardService.getTopPokemon("grass", 10).getContent()).isEmpty();
+    }
+
+    private int createPokemon(String name, String type) {
+        return pokemonService.createPokemon(PokemonDto.builder().name(name).type(type).build()).getId();
+    }
+
+    private void review(int pokemonId, int... stars) {
+        for (int star : stars) {
+            reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(star).build());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.impl.PokemonServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(PokemonServiceImpl.class)
+public class PokemonBulkUpsertTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should create new pokemon, update existing ones by name and report bad rows")
+    public void upsertPokemon() {
+        int pikachuId = pokemonRepository.save(Pokemon.builder().name("pikachu").type("normal").build()).getId();
+
+        List<PokemonDto> pokemonDtos = new ArrayList<>();
+        pokemonDtos.add(PokemonDto.builder().name("pikachu").type("electric").build());
+        for (int i = 0; i < 1000; i++) {
+            pokemonDtos.add(PokemonDto.builder().name("pokemon" + i).type("fire").build());
+        }
+        pokemonDtos.add(PokemonDto.builder().type("water").build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkResponse response = pokemonService.upsertPokemon(pokemonDtos);
+        pokemonRepository.flush();
+
+        Assertions.assertThat(response.getCreated()).isEqualTo(1000);
+        Assertions.assertThat(response.getUpdated()).isEqualTo(1);
+        Assertions.assertThat(response.getFailed()).isEqualTo(1);
+        Assertions.assertThat(response.getItems().get(0).getStatus()).isEqualTo(BulkItemStatus.UPDATED);
+        Assertions.assertThat(response.getItems().get(0).getId()).isEqualTo(pikachuId);
+        Assertions.assertThat(response.getItems().subList(1, 1001))
+                .allMatch(item -> item.getStatus() == BulkItemStatus.CREATED && item.getId() > 0);
+        Assertions.assertThat(response.getItems().get(1001).getStatus()).isEqualTo(BulkItemStatus.FAILED);
+
+        //1000 rows at a batch size of 50 are 20 insert statements, plus the lookup, sequence calls and the update
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThan(60);
+
+        Assertions.assertThat(pokemonRepository.count()).isEqualTo(1001);
+        Assertions.assertThat(pokemonRepository.findById(pikachuId).get().getType()).isEqualTo("electric");
+    }
+}
@@ -0,0 +1,170 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonFilter;
+import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.InvalidFilterException;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.PokemonRating;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.impl.PokemonServiceImpl;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PokemonServiceImpl.class, ReviewServiceImpl.class})
+public class PokemonListingTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private PokemonRatingRepository pokemonRatingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int pikachu;
+    private int pichu;
+    private int raichu;
+    private int bulbasaur;
+
+    @BeforeEach
+    public void init() {
+        pikachu = save("pikachu", "electric");
+        pichu = save("pichu", "electric");
+        raichu = save("raichu", "electric");
+        bulbasaur = save("bulbasaur", "grass");
+        save("pi_kachu", "electric");
+
+        rate(pikachu, 5, 4);
+        rate(raichu, 3);
+        rate(bulbasaur, 4, 5, 5);
+    }
+
+    @Test
+    @DisplayName("Should list every pokemon of a type when two share it")
+    public void filterByType() {
+        PokemonResponse response = pokemonService.getAllPokemon(PokemonFilter.builder().type("electric").build(), 0, 10);
+
+        Assertions.assertThat(response.getContent()).extracting(PokemonDto::getName)
+                .containsExactly("pikachu", "pichu", "raichu", "pi_kachu");
+        Assertions.assertThat(response.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should match a name prefix literally and sort by name")
+    public void filterByNamePrefix() {
+        PokemonResponse response = pokemonService.getAllPokemon(
+                PokemonFilter.builder().type("electric").namePrefix("pi").build(), 0, 10);
+        PokemonResponse literal = pokemonService.getAllPokemon(PokemonFilter.builder().namePrefix("pi_").build(), 0, 10);
+
+        Assertions.assertThat(response.getContent()).extracting(PokemonDto::getName)
+                .containsExactly("pi_kachu", "pichu", "pikachu");
+        Assertions.assertThat(literal.getContent()).extracting(PokemonDto::getName).containsExactly("pi_kachu");
+    }
+
+    @Test
+    @DisplayName("Should list the best rated pokemon first above a minimum rating")
+    public void filterByMinRating() {
+        PokemonResponse response = pokemonService.getAllPokemon(PokemonFilter.builder().minRating(4.0).build(), 0, 10);
+        PokemonResponse ascending = pokemonService.getAllPokemon(
+                PokemonFilter.builder().sortBy("rating").sortDir("asc").build(), 0, 10);
+
+        Assertions.assertThat(response.getContent()).extracting(PokemonDto::getId).containsExactly(bulbasaur, pikachu);
+        Assertions.assertThat(response.getTotalElements()).isEqualTo(2);
+        //pichu has no review, so no rating to sort by
+        Assertions.assertThat(ascending.getContent()).extracting(PokemonDto::getId).containsExactly(raichu, pikachu, bulbasaur);
+    }
+
+    @Test
+    @DisplayName("Should leave pokemon whose reviews were all deleted out of the rating sort")
+    public void sortByRatingSkipsUnreviewed() {
+        for (ReviewDto review : reviewService.getReviewsByPokemonId(raichu)) {
+            reviewService.deleteReview(raichu, review.getId());
+        }
+
+        PokemonResponse ascending = pokemonService.getAllPokemon(
+                PokemonFilter.builder().sortBy("rating").sortDir("asc").build(), 0, 10);
+
+        Assertions.assertThat(ascending.getContent()).extracting(PokemonDto::getId).containsExactly(pikachu, bulbasaur);
+        Assertions.assertThat(ascending.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should page a filtered listing")
+    public void pageFilteredListing() {
+        PokemonFilter filter = PokemonFilter.builder().type("electric").sortBy("name").sortDir("desc").build();
+
+        PokemonResponse first = pokemonService.getAllPokemon(filter, 0, 2);
+        PokemonResponse second = pokemonService.getAllPokemon(filter, 1, 2);
+
+        Assertions.assertThat(first.getContent()).extracting(PokemonDto::getName).containsExactly("raichu", "pikachu");
+        Assertions.assertThat(second.getContent()).extracting(PokemonDto::getName).containsExactly("pichu", "pi_kachu");
+        Assertions.assertThat(second.isLast()).isTrue();
+        Assertions.assertThat(pokemonService.getPokemonListVersionTag(filter, first))
+                .isNotEqualTo(pokemonService.getPokemonListVersionTag(filter, second));
+    }
+
+    @Test
+    @DisplayName("Should refuse filters and sort keys no index answers")
+    public void rejectUnindexedCombinations() {
+        Assertions.assertThatThrownBy(() -> pokemonService.getAllPokemon(
+                        PokemonFilter.builder().type("electric").minRating(4.0).build(), 0, 10))
+                .isInstanceOf(InvalidFilterException.class)
+                .hasMessageContaining("minRating and type sorted by rating");
+        Assertions.assertThatThrownBy(() -> pokemonService.getAllPokemon(
+                        PokemonFilter.builder().namePrefix("pi").sortBy("id").build(), 0, 10))
+                .isInstanceOf(InvalidFilterException.class);
+        Assertions.assertThatThrownBy(() -> pokemonService.getAllPokemon(
+                        PokemonFilter.builder().sortBy("type").build(), 0, 10))
+                .isInstanceOf(InvalidFilterException.class);
+        Assertions.assertThatThrownBy(() -> pokemonService.getAllPokemon(
+                        PokemonFilter.builder().minRating(6.0).build(), 0, 10))
+                .isInstanceOf(InvalidFilterException.class);
+    }
+
+    @Test
+    @DisplayName("Should fill in the average of ratings stored before the column existed")
+    public void fillMissingAverageStars() {
+        PokemonRating rating = pokemonRatingRepository.findById(bulbasaur).orElseThrow();
+        rating.setAverageStars(0);
+        pokemonRatingRepository.saveAndFlush(rating);
+        entityManager.clear();
+
+        int filled = pokemonRatingRepository.fillMissingAverageStars();
+
+        Assertions.assertThat(filled).isEqualTo(1);
+        Assertions.assertThat(pokemonRatingRepository.findById(bulbasaur).orElseThrow().getAverageStars())
+                .isCloseTo(14 / 3.0, Assertions.within(1e-9));
+    }
+
+    private int save(String name, String type) {
+        return pokemonRepository.save(Pokemon.builder().name(name).type(type).build()).getId();
+    }
+
+    private void rate(int pokemonId, int... stars) {
+        for (int star : stars) {
+            reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(star).build());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.pokemonreview.api.service;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
 import com.pokemonreview.api.repository.PokemonRepository;
 import com.pokemonreview.api.service.impl.PokemonServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -13,9 +14,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
@@ -27,6 +30,12 @@ public class PokemonServicesTest {
     @Mock
     private PokemonRepository pokemonRepository;
 
+    @Mock
+    private PokemonRatingRepository pokemonRatingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PokemonServiceImpl pokemonService;
 
@@ -66,6 +75,25 @@ public class PokemonServicesTest {
 
     }
 
+    @Test
+    @DisplayName("Should get a keyset page of pokemon with a cursor and the total")
+    public void getAllPokemonKeysetOk() {
+
+        Pokemon pikachu = Pokemon.builder().id(1).name("pikachu").type("electric").build();
+        Pokemon raichu = Pokemon.builder().id(2).name("raichu").type("electric").build();
+
+        when(pokemonRepository.findByIdGreaterThanOrderByIdAsc(Mockito.eq(0), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(pikachu, raichu));
+        when(pokemonRepository.count()).thenReturn(2L);
+
+        PokemonResponse pokemonReturn = pokemonService.getAllPokemon(null, 1, true);
+
+        Assertions.assertThat(pokemonReturn.getContent()).hasSize(1);
+        Assertions.assertThat(pokemonReturn.isLast()).isFalse();
+        Assertions.assertThat(pokemonReturn.getNextCursor()).isNotNull();
+        Assertions.assertThat(pokemonReturn.getTotalPages()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Should get pokemon by id")
     public void getPokemonByIdOk() {
@@ -0,0 +1,97 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//jdbc and r2dbc are pointed at the same named in-memory database, so rows written through jpa are read back reactively
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:streams;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///streams?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class PokemonStreamServiceTest {
+
+    private static final int POKEMON = 1000;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private PokemonStreamService pokemonStreamService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon");
+        jdbcTemplate.update("insert into pokemon (id, name, type, version) " +
+                "select x, concat('pokemon', x), 'normal', 0 from system_range(1, ?)", POKEMON);
+        jdbcTemplate.update("insert into review (id, title, content, stars, version, pokemon_id) " +
+                "select x, concat('title', x), 'content', mod(x, 5) + 1, 0, mod(x, 2) + 1 from system_range(1, 10)");
+    }
+
+    @Test
+    @DisplayName("Should stream every pokemon after the given id in id order")
+    public void streamPokemonOk() {
+        List<PokemonDto> pokemon = pokemonStreamService.streamPokemon(10, null).collectList().block(TIMEOUT);
+
+        Assertions.assertThat(pokemon).hasSize(POKEMON - 10);
+        Assertions.assertThat(pokemon.get(0).getId()).isEqualTo(11);
+        Assertions.assertThat(pokemon.get(0).getName()).isEqualTo("pokemon11");
+        Assertions.assertThat(pokemon).extracting(PokemonDto::getId).isSorted();
+    }
+
+    @Test
+    @DisplayName("Should stop the stream at the limit")
+    public void streamPokemonLimit() {
+        StepVerifier.create(pokemonStreamService.streamPokemon(0, 3))
+                .expectNextMatches(pokemon -> pokemon.getId() == 1)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should only read as many pokemon as the subscriber asks for")
+    public void streamPokemonBackpressure() {
+        StepVerifier.create(pokemonStreamService.streamPokemon(0, null), 2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(1)
+                .expectNextMatches(pokemon -> pokemon.getId() == 3)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    @DisplayName("Should stream only the reviews of the given pokemon")
+    public void streamReviewsByPokemonIdOk() {
+        List<ReviewDto> reviews = pokemonStreamService.streamReviewsByPokemonId(1).collectList().block(TIMEOUT);
+
+        Assertions.assertThat(reviews.stream().map(ReviewDto::getId).collect(Collectors.toList()))
+                .containsExactly(2, 4, 6, 8, 10);
+        Assertions.assertThat(reviews.get(0).getTitle()).isEqualTo("title2");
+    }
+
+    @Test
+    @DisplayName("Should complete empty for a pokemon without reviews")
+    public void streamReviewsByPokemonIdEmpty() {
+        StepVerifier.create(pokemonStreamService.streamReviewsByPokemonId(POKEMON + 1))
+                .verifyComplete();
+    }
+}
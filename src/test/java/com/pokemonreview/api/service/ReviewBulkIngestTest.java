@@ -0,0 +1,89 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.PokemonRatingDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(ReviewServiceImpl.class)
+public class ReviewBulkIngestTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should insert a bulk of reviews in batches and report failures per item")
+    public void createReviews() {
+        int pikachuId = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build()).getId();
+        int missingId = pikachuId + 1000;
+
+        List<ReviewDto> reviews = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            reviews.add(ReviewDto.builder().title("title" + i).content("content").stars(1 + i % 5).build());
+        }
+        reviews.add(null);
+        Map<Integer, List<ReviewDto>> request = new LinkedHashMap<>();
+        request.put(pikachuId, reviews);
+        request.put(missingId, Arrays.asList(ReviewDto.builder().title("title").content("content").stars(3).build()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkResponse response = reviewService.createReviews(request);
+
+        Assertions.assertThat(response.getCreated()).isEqualTo(1000);
+        Assertions.assertThat(response.getFailed()).isEqualTo(2);
+        Assertions.assertThat(response.getItems()).hasSize(1002);
+        Assertions.assertThat(response.getItems().subList(0, 1000))
+                .allMatch(item -> item.getStatus() == BulkItemStatus.CREATED && item.getId() > 0);
+
+        BulkItemResult nullItem = response.getItems().get(1000);
+        Assertions.assertThat(nullItem.getStatus()).isEqualTo(BulkItemStatus.FAILED);
+        Assertions.assertThat(nullItem.getIndex()).isEqualTo(1000);
+        BulkItemResult missingPokemon = response.getItems().get(1001);
+        Assertions.assertThat(missingPokemon.getStatus()).isEqualTo(BulkItemStatus.FAILED);
+        Assertions.assertThat(missingPokemon.getPokemonId()).isEqualTo(missingId);
+        Assertions.assertThat(missingPokemon.getId()).isNull();
+
+        //1000 rows at a batch size of 50 are 20 insert statements, plus a handful of sequence, lookup and rating queries
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThan(60);
+
+        PokemonRatingDto rating = reviewService.getRatingByPokemonId(pikachuId);
+        Assertions.assertThat(rating.getReviewCount()).isEqualTo(1000);
+        Assertions.assertThat(rating.getAverageStars()).isEqualTo(3.0);
+        Assertions.assertThat(rating.getHistogram().get(5)).isEqualTo(200);
+    }
+}
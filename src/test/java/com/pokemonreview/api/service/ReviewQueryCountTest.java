@@ -0,0 +1,98 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(ReviewServiceImpl.class)
+public class ReviewQueryCountTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private int pokemonId;
+    private int otherPokemonId;
+    private int reviewId;
+
+    @BeforeEach
+    public void init() {
+        pokemonId = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build()).getId();
+        otherPokemonId = pokemonRepository.save(Pokemon.builder().name("eevee").type("normal").build()).getId();
+        reviewId = reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(3).build()).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should read a review with a single select")
+    public void getReviewById() {
+        ReviewDto reviewDto = reviewService.getReviewById(reviewId, pokemonId);
+
+        Assertions.assertThat(reviewDto.getId()).isEqualTo(reviewId);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should update a review with one select and the two updates")
+    public void updateReview() {
+        reviewService.updateReview(pokemonId, reviewId, ReviewDto.builder().title("new").content("new").stars(5).build());
+        entityManager.flush();
+
+        //select review, update review, update rating
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should delete a review with one select, the delete and the rating update")
+    public void deleteReview() {
+        reviewService.deleteReview(pokemonId, reviewId);
+        entityManager.flush();
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should report a missing pokemon or a foreign review as not found")
+    public void reviewNotFound() {
+        Assertions.assertThatThrownBy(() -> reviewService.getReviewById(reviewId, otherPokemonId + 1000))
+                .isInstanceOf(PokemonNotFoundException.class);
+        entityManager.clear();
+        Assertions.assertThatThrownBy(() -> reviewService.getReviewById(reviewId, otherPokemonId))
+                .isInstanceOf(ReviewNotFoundException.class);
+
+        //each miss is the review select plus the pokemon existence check
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+}
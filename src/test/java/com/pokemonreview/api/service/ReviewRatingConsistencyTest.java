@@ -0,0 +1,106 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonRatingDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(ReviewServiceImpl.class)
+public class ReviewRatingConsistencyTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private PokemonRatingRepository pokemonRatingRepository;
+
+    @Test
+    @DisplayName("Should keep the rating aggregate equal to the reviews through random changes")
+    public void ratingMatchesReviews() {
+
+        Random random = new Random(42);
+        List<Integer> pokemonIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pokemonIds.add(pokemonRepository.save(Pokemon.builder().name("pokemon" + i).type("normal").build()).getId());
+        }
+
+        for (int step = 0; step < 300; step++) {
+            int pokemonId = pokemonIds.get(random.nextInt(pokemonIds.size()));
+            List<ReviewDto> reviews = reviewService.getReviewsByPokemonId(pokemonId);
+            int operation = reviews.isEmpty() ? 0 : random.nextInt(3);
+
+            if (operation == 0) {
+                reviewService.createReview(pokemonId, review(random));
+            } else if (operation == 1) {
+                ReviewDto existing = reviews.get(random.nextInt(reviews.size()));
+                reviewService.updateReview(pokemonId, existing.getId(), review(random));
+            } else {
+                ReviewDto existing = reviews.get(random.nextInt(reviews.size()));
+                reviewService.deleteReview(pokemonId, existing.getId());
+            }
+
+            assertRatingMatches(pokemonId);
+        }
+    }
+
+    @Test
+    @DisplayName("Should count the rating of pokemon reviewed before the aggregate existed")
+    public void backfillMatchesReviews() {
+        Random random = new Random(7);
+        int reviewed = pokemonRepository.save(Pokemon.builder().name("reviewed").type("normal").build()).getId();
+        int unreviewed = pokemonRepository.save(Pokemon.builder().name("unreviewed").type("normal").build()).getId();
+        for (int i = 0; i < 20; i++) {
+            reviewService.createReview(reviewed, review(random));
+        }
+        pokemonRatingRepository.deleteAll();
+
+        Assertions.assertThat(pokemonRatingRepository.insertMissing()).isEqualTo(2);
+
+        assertRatingMatches(reviewed);
+        assertRatingMatches(unreviewed);
+        Assertions.assertThat(pokemonRatingRepository.insertMissing()).isZero();
+    }
+
+    private void assertRatingMatches(int pokemonId) {
+        List<ReviewDto> reviews = reviewService.getReviewsByPokemonId(pokemonId);
+        PokemonRatingDto rating = reviewService.getRatingByPokemonId(pokemonId);
+
+        Assertions.assertThat(rating.getReviewCount()).isEqualTo(reviews.size());
+        Assertions.assertThat(rating.getAverageStars())
+                .isCloseTo(reviews.stream().mapToInt(ReviewDto::getStars).average().orElse(0), Assertions.within(1e-9));
+        for (int stars = 1; stars <= 5; stars++) {
+            int expected = stars;
+            Assertions.assertThat(rating.getHistogram().get(stars))
+                    .isEqualTo((int) reviews.stream().filter(r -> r.getStars() == expected).count());
+        }
+        //the stored column the listing filters and sorts on
+        Assertions.assertThat(pokemonRatingRepository.findById(pokemonId).orElseThrow().getAverageStars())
+                .isCloseTo(rating.getAverageStars(), Assertions.within(1e-9));
+    }
+
+    private ReviewDto review(Random random) {
+        return ReviewDto.builder()
+                .title("title")
+                .content("content")
+                .stars(1 + random.nextInt(5)).build();
+    }
+}
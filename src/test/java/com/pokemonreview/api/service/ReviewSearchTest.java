@@ -0,0 +1,144 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewSearchHit;
+import com.pokemonreview.api.exceptions.InvalidSearchQueryException;
+import com.pokemonreview.api.search.ReviewSearchIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+//not transactional, the index only picks up changes once they are committed
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class ReviewSearchTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewSearchService reviewSearchService;
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int pokemonId;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon_rating");
+        jdbcTemplate.update("delete from pokemon");
+        reviewSearchIndex.rebuild();
+        pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should find reviews by words in their title or content, title matches first")
+    public void findsByTitleAndContent() {
+        int inContent = createReview("Great pick", "my shiny one never loses").getId();
+        int inTitle = createReview("Shiny and fast", "a good choice").getId();
+        createReview("Too slow", "would not pick again");
+        reviewSearchIndex.refresh();
+
+        List<ReviewSearchHit> hits = reviewSearchService.searchReviews("SHINY", 20);
+
+        Assertions.assertThat(hits).extracting(ReviewSearchHit::getId).containsExactly(inTitle, inContent);
+        Assertions.assertThat(hits.get(0).getPokemonId()).isEqualTo(pokemonId);
+        Assertions.assertThat(hits.get(0).getTitle()).isEqualTo("Shiny and fast");
+    }
+
+    @Test
+    @DisplayName("Should only return reviews that contain every word")
+    public void requiresEveryWord() {
+        int both = createReview("Shiny", "and fast").getId();
+        createReview("Shiny", "but slow");
+        reviewSearchIndex.refresh();
+
+        Assertions.assertThat(reviewSearchService.searchReviews("shiny fast", 20))
+                .extracting(ReviewSearchHit::getId).containsExactly(both);
+    }
+
+    @Test
+    @DisplayName("Should follow updates and deletes of reviews and pokemon")
+    public void followsChanges() {
+        ReviewDto review = createReview("Shiny", "sparkles");
+        int other = createReview("Shiny", "glitters").getId();
+
+        reviewService.updateReview(pokemonId, review.getId(), ReviewDto.builder().title("Plain").content("dull").stars(2).build());
+        reviewSearchIndex.refresh();
+        Assertions.assertThat(reviewSearchService.searchReviews("sparkles", 20)).isEmpty();
+        Assertions.assertThat(reviewSearchService.searchReviews("dull", 20)).extracting(ReviewSearchHit::getId).containsExactly(review.getId());
+
+        reviewService.deleteReview(pokemonId, other);
+        reviewSearchIndex.refresh();
+        Assertions.assertThat(reviewSearchService.searchReviews("glitters", 20)).isEmpty();
+
+        pokemonService.deletePokemonId(pokemonId);
+        reviewSearchIndex.refresh();
+        Assertions.assertThat(reviewSearchService.searchReviews("dull", 20)).isEmpty();
+        //dropped from the index, not just filtered out when the hits are read back
+        Assertions.assertThat(reviewSearchIndex.search("dull", 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should index reviews created in bulk and skip a rolled back write")
+    public void indexesCommittedWritesOnly() {
+        reviewService.createReviews(Map.of(pokemonId, List.of(
+                ReviewDto.builder().title("bulk one").content("shiny").stars(5).build(),
+                ReviewDto.builder().title("bulk two").content("shiny").stars(4).build())));
+        transactionTemplate.executeWithoutResult(status -> {
+            createReview("rolled back", "shiny");
+            status.setRollbackOnly();
+        });
+        reviewSearchIndex.refresh();
+
+        Assertions.assertThat(reviewSearchService.searchReviews("shiny", 20))
+                .extracting(ReviewSearchHit::getTitle).containsExactlyInAnyOrder("bulk one", "bulk two");
+    }
+
+    @Test
+    @DisplayName("Should pick up reviews that were written behind its back on rebuild")
+    public void rebuildsFromDatabase() {
+        jdbcTemplate.update("insert into review (id, title, content, stars, version, pokemon_id) values (999999, 'imported', 'shiny', 3, 0, ?)", pokemonId);
+        Assertions.assertThat(reviewSearchService.searchReviews("imported", 20)).isEmpty();
+
+        reviewSearchIndex.rebuild();
+
+        Assertions.assertThat(reviewSearchService.searchReviews("imported", 20)).extracting(ReviewSearchHit::getId).containsExactly(999999);
+    }
+
+    @Test
+    @DisplayName("Should take query syntax as plain words and refuse an empty query")
+    public void plainWordsOnly() {
+        int id = createReview("title", "is it worth it? (yes)").getId();
+        reviewSearchIndex.refresh();
+
+        Assertions.assertThat(reviewSearchService.searchReviews("worth it? (yes", 20)).extracting(ReviewSearchHit::getId).containsExactly(id);
+        Assertions.assertThatThrownBy(() -> reviewSearchService.searchReviews("  ", 20)).isInstanceOf(InvalidSearchQueryException.class);
+    }
+
+    private ReviewDto createReview(String title, String content) {
+        return reviewService.createReview(pokemonId, ReviewDto.builder().title(title).content(content).stars(5).build());
+    }
+}
@@ -1,9 +1,13 @@
 package com.pokemonreview.api.service;
 
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonRatingDto;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.dto.ReviewResponse;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.PokemonRating;
 import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.repository.PokemonRatingRepository;
 import com.pokemonreview.api.repository.PokemonRepository;
 import com.pokemonreview.api.repository.ReviewRepository;
 import com.pokemonreview.api.service.impl.ReviewServiceImpl;
@@ -12,14 +16,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.when;
@@ -33,6 +43,12 @@ public class ReviewServiceTest {
     @Mock
     private PokemonRepository pokemonRepository;
 
+    @Mock
+    private PokemonRatingRepository pokemonRatingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -79,7 +95,7 @@ public class ReviewServiceTest {
     public void findReviewByPokemonId() {
 
         int reviewId = 1;
-        when(reviewRepository.findByPokemonId(reviewId)).thenReturn(Arrays.asList(review));
+        when(reviewRepository.findByPokemonId(Mockito.eq(reviewId), Mockito.any(Pageable.class))).thenReturn(Arrays.asList(review));
 
         List<ReviewDto> pokemonReturn = reviewService.getReviewsByPokemonId(reviewId);
 
@@ -93,9 +109,9 @@ public class ReviewServiceTest {
         int reviewId = 1;
         int pokemonId = 1;
 
+        pokemon.setId(pokemonId);
         review.setPokemon(pokemon);
 
-        when(pokemonRepository.findById(pokemonId)).thenReturn(Optional.of(pokemon));
         when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
 
         ReviewDto reviewReturn = reviewService.getReviewById(reviewId, pokemonId);
@@ -114,8 +130,7 @@ public class ReviewServiceTest {
         review.setPokemon(pokemon);
 
         //act
-        when(pokemonRepository.findById(pokemonId)).thenReturn(Optional.of(pokemon));
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdAndPokemonId(reviewId, pokemonId)).thenReturn(Optional.of(review));
 
         when(reviewRepository.save(review)).thenReturn(review);
 
@@ -136,10 +151,70 @@ public class ReviewServiceTest {
         pokemon.setReviews(Arrays.asList(review));
         review.setPokemon(pokemon);
 
-        when(pokemonRepository.findById(pokemonId)).thenReturn(Optional.of(pokemon));
-        when(reviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(reviewRepository.findByIdAndPokemonId(reviewId, pokemonId)).thenReturn(Optional.of(review));
 
         assertAll(() -> reviewService.deleteReview(pokemonId, reviewId));
     }
 
+    @Test
+    @DisplayName("Should return the rating summary of a pokemon")
+    public void getRatingByPokemonId() {
+        int pokemonId = 1;
+
+        PokemonRating rating = PokemonRating.builder()
+                .pokemonId(pokemonId)
+                .reviewCount(2)
+                .starsTotal(9)
+                .fourStars(1)
+                .fiveStars(1).build();
+
+        when(pokemonRepository.existsById(pokemonId)).thenReturn(true);
+        when(pokemonRatingRepository.findById(pokemonId)).thenReturn(Optional.of(rating));
+
+        PokemonRatingDto ratingReturn = reviewService.getRatingByPokemonId(pokemonId);
+
+        Assertions.assertThat(ratingReturn.getReviewCount()).isEqualTo(2);
+        Assertions.assertThat(ratingReturn.getAverageStars()).isEqualTo(4.5);
+        Assertions.assertThat(ratingReturn.getHistogram()).containsEntry(4, 1).containsEntry(5, 1).containsEntry(1, 0);
+    }
+
+    @Test
+    @DisplayName("Should return a page of reviews with a cursor to the next one")
+    public void findReviewPageByPokemonId() {
+        int pokemonId = 1;
+
+        Review first = Review.builder().id(1).title("title").content("content").stars(5).build();
+        Review second = Review.builder().id(2).title("title").content("content").stars(4).build();
+
+        when(reviewRepository.findByPokemonIdAndIdGreaterThanOrderByIdAsc(Mockito.eq(pokemonId), Mockito.eq(0), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(first, second));
+
+        ReviewResponse pageReturn = reviewService.getReviewsByPokemonId(pokemonId, null, 1);
+
+        Assertions.assertThat(pageReturn.getContent()).hasSize(1);
+        Assertions.assertThat(pageReturn.isLast()).isFalse();
+        Assertions.assertThat(pageReturn.getNextCursor()).isNotNull();
+    }
+
+
+    @Test
+    @DisplayName("Should update the ratings of a batch in ascending pokemon id")
+    public void createReviewsLocksRatingsInIdOrder() {
+        Map<Integer, List<ReviewDto>> reviewsByPokemonId = new LinkedHashMap<>();
+        reviewsByPokemonId.put(9, List.of(reviewDto));
+        reviewsByPokemonId.put(2, List.of(reviewDto));
+        reviewsByPokemonId.put(5, List.of(reviewDto));
+        when(pokemonRepository.findExistingIds(reviewsByPokemonId.keySet())).thenReturn(Set.of(2, 5, 9));
+        when(pokemonRepository.getReferenceById(Mockito.anyInt())).thenReturn(pokemon);
+        when(pokemonRatingRepository.applyDelta(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyInt(),
+                Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt())).thenReturn(1);
+
+        reviewService.createReviews(reviewsByPokemonId);
+
+        InOrder inOrder = Mockito.inOrder(pokemonRatingRepository);
+        for (int pokemonId : List.of(2, 5, 9)) {
+            inOrder.verify(pokemonRatingRepository).applyDelta(Mockito.eq(pokemonId), Mockito.anyInt(), Mockito.anyLong(),
+                    Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+        }
+    }
 }
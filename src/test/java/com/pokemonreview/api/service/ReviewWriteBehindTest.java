@@ -0,0 +1,85 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.QueuedReviewStatus;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//not transactional, the queue writes on its own thread and in its own transactions
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class ReviewWriteBehindTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int pokemonId;
+
+    @BeforeEach
+    public void init() {
+        jdbcTemplate.update("delete from review");
+        jdbcTemplate.update("delete from pokemon_rating");
+        jdbcTemplate.update("delete from pokemon");
+        pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should write queued reviews and report their ids")
+    public void writesQueuedReviews() throws Exception {
+        List<QueuedReviewDto> queued = new ArrayList<>();
+        for (int stars = 1; stars <= 5; stars++) {
+            queued.add(reviewQueueService.queueReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(stars).build()));
+        }
+
+        List<Integer> reviewIds = new ArrayList<>();
+        for (QueuedReviewDto review : queued) {
+            QueuedReviewDto done = awaitDone(review.getTrackingId());
+            Assertions.assertThat(done.getStatus()).isEqualTo(QueuedReviewStatus.CREATED);
+            reviewIds.add(done.getReviewId());
+        }
+
+        Assertions.assertThat(reviewService.getReviewsByPokemonId(pokemonId)).extracting(ReviewDto::getId)
+                .containsExactlyInAnyOrderElementsOf(reviewIds);
+        Assertions.assertThat(reviewService.getRatingByPokemonId(pokemonId).getAverageStars()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse a review for an unknown pokemon before queueing it")
+    public void unknownPokemon() {
+        Assertions.assertThatThrownBy(() -> reviewQueueService.queueReview(pokemonId + 1,
+                        ReviewDto.builder().title("title").content("content").stars(5).build()))
+                .isInstanceOf(PokemonNotFoundException.class);
+    }
+
+    private QueuedReviewDto awaitDone(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        QueuedReviewDto status = reviewQueueService.getQueuedReview(trackingId);
+        while (status.getStatus() == QueuedReviewStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = reviewQueueService.getQueuedReview(trackingId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,77 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.config.SecondLevelCacheConfig;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.service.impl.PokemonServiceImpl;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+//runs without the test transaction so every service call commits and goes through the cache like in production
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PokemonServiceImpl.class, ReviewServiceImpl.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    @Test
+    @DisplayName("Should serve repeat detail reads from the cache and refresh it on updates")
+    public void detailReadsAreCached() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        int reviewId = reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(4).build()).getId();
+
+        pokemonService.getPokemonById(pokemonId);
+        reviewService.getReviewById(reviewId, pokemonId);
+        statistics.clear();
+
+        Assertions.assertThat(pokemonService.getPokemonById(pokemonId).getName()).isEqualTo("pikachu");
+        Assertions.assertThat(reviewService.getReviewById(reviewId, pokemonId).getStars()).isEqualTo(4);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+
+        pokemonService.updatePokemon(PokemonDto.builder().name("raichu").type("electric").build(), pokemonId);
+        reviewService.updateReview(pokemonId, reviewId, ReviewDto.builder().title("title").content("content").stars(2).build());
+
+        Assertions.assertThat(pokemonService.getPokemonById(pokemonId).getName()).isEqualTo("raichu");
+        Assertions.assertThat(reviewService.getReviewById(reviewId, pokemonId).getStars()).isEqualTo(2);
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+        Assertions.assertThat(registry.get("hibernate.second.level.cache.size").tag("region", "pokemon").gauge().value()).isEqualTo(1);
+        Assertions.assertThat(registry.get("hibernate.second.level.cache.size").tag("region", "review").gauge().value()).isEqualTo(1);
+
+        reviewService.deleteReview(pokemonId, reviewId);
+        pokemonService.deletePokemonId(pokemonId);
+        Assertions.assertThatThrownBy(() -> pokemonService.getPokemonById(pokemonId)).isInstanceOf(PokemonNotFoundException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.service.impl.PokemonServiceImpl;
+import com.pokemonreview.api.service.impl.ReviewServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({PokemonServiceImpl.class, ReviewServiceImpl.class})
+public class VersionTagTest {
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Should change the pokemon and listing tags only when a pokemon changes")
+    public void pokemonTags() {
+        int pikachuId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        pokemonService.createPokemon(PokemonDto.builder().name("eevee").type("normal").build());
+        entityManager.flush();
+
+        String detailTag = detailTag(pikachuId);
+        String pageTag = pokemonService.getPokemonListVersionTag(0, 10);
+        String keysetTag = pokemonService.getPokemonListVersionTag(null, 10, true);
+        Assertions.assertThat(detailTag(pikachuId)).isEqualTo(detailTag);
+        Assertions.assertThat(pokemonService.getPokemonListVersionTag(0, 10)).isEqualTo(pageTag);
+
+        pokemonService.updatePokemon(PokemonDto.builder().name("raichu").type("electric").build(), pikachuId);
+        entityManager.flush();
+
+        Assertions.assertThat(detailTag(pikachuId)).isNotEqualTo(detailTag);
+        Assertions.assertThat(pokemonService.getPokemonListVersionTag(0, 10)).isNotEqualTo(pageTag);
+        Assertions.assertThat(pokemonService.getPokemonListVersionTag(null, 10, true)).isNotEqualTo(keysetTag);
+    }
+
+    @Test
+    @DisplayName("Should change the reviews tag on every review mutation")
+    public void reviewsTag() {
+        int pokemonId = pokemonService.createPokemon(PokemonDto.builder().name("pikachu").type("electric").build()).getId();
+        //the rating row is created with the pokemon, so even no reviews yet have a tag
+        String empty = reviewService.getReviewsVersionTag(pokemonId);
+        Assertions.assertThat(empty).isNotNull();
+
+        int reviewId = reviewService.createReview(pokemonId, ReviewDto.builder().title("title").content("content").stars(4).build()).getId();
+        String created = reviewService.getReviewsVersionTag(pokemonId);
+        Assertions.assertThat(created).isNotEqualTo(empty);
+
+        //same stars, only the text changes
+        reviewService.updateReview(pokemonId, reviewId, ReviewDto.builder().title("new title").content("content").stars(4).build());
+        String updated = reviewService.getReviewsVersionTag(pokemonId);
+        Assertions.assertThat(updated).isNotEqualTo(created);
+
+        reviewService.deleteReview(pokemonId, reviewId);
+        Assertions.assertThat(reviewService.getReviewsVersionTag(pokemonId)).isNotEqualTo(updated);
+    }
+
+    private String detailTag(int pokemonId) {
+        return pokemonService.getPokemonVersionTag(pokemonService.getPokemonById(pokemonId));
+    }
+}
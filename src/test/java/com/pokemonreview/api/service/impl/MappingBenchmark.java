@@ -0,0 +1,55 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.Review;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//lives next to the services because the mappers are package-private
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final PokemonServiceImpl pokemonService = new PokemonServiceImpl(null, null, null);
+    private final ReviewServiceImpl reviewService = new ReviewServiceImpl(null, null, null, null);
+
+    private Pokemon pokemon;
+    private PokemonDto pokemonDto;
+    private Review review;
+    private ReviewDto reviewDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pokemon = Pokemon.builder().id(25).name("pikachu").type("electric").build();
+        pokemonDto = PokemonDto.builder().id(25).name("pikachu").type("electric").build();
+        review = Review.builder().id(1).title("title").content("A very good pokemon").stars(5).pokemon(pokemon).build();
+        reviewDto = ReviewDto.builder().id(1).title("title").content("A very good pokemon").stars(5).build();
+    }
+
+    @Benchmark
+    public PokemonDto pokemonToDto() {
+        return pokemonService.mapToDto(pokemon);
+    }
+
+    @Benchmark
+    public Pokemon pokemonToEntity() {
+        return pokemonService.mapToEntity(pokemonDto);
+    }
+
+    @Benchmark
+    public ReviewDto reviewToDto() {
+        return reviewService.mapToDto(review);
+    }
+
+    @Benchmark
+    public Review reviewToEntity() {
+        return reviewService.mapToEntity(reviewDto);
+    }
+}
@@ -0,0 +1,167 @@
+package com.pokemonreview.api.writebehind;
+
+import com.pokemonreview.api.dto.BulkItemResult;
+import com.pokemonreview.api.dto.BulkItemStatus;
+import com.pokemonreview.api.dto.BulkResponse;
+import com.pokemonreview.api.dto.QueuedReviewDto;
+import com.pokemonreview.api.dto.QueuedReviewStatus;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.ReviewQueueClosedException;
+import com.pokemonreview.api.exceptions.ReviewQueueFullException;
+import com.pokemonreview.api.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ReviewWriteBehindQueueTest {
+
+    private final ReviewService reviewService = Mockito.mock(ReviewService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    //held by the first batch, so the reviews queued after it pile up
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ReviewWriteBehindQueue queue = new ReviewWriteBehindQueue(reviewService, 2, 100,
+            Duration.ofSeconds(10), Duration.ofMinutes(10), meterRegistry);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should turn reviews away once the queue is full")
+    public void rejectsWhenFull() throws Exception {
+        blockFirstBatch();
+        queue.start();
+
+        queue.enqueue(1, review(5));
+        Assertions.assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(1, review(4));
+        queue.enqueue(1, review(3));
+
+        Assertions.assertThatThrownBy(() -> queue.enqueue(1, review(2))).isInstanceOf(ReviewQueueFullException.class);
+        Assertions.assertThat(meterRegistry.get(ReviewWriteBehindQueue.REJECTED_METRIC_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write the reviews still queued on stop in one batch")
+    public void drainsOnStop() throws Exception {
+        blockFirstBatch();
+        queue.start();
+
+        QueuedReviewDto first = queue.enqueue(1, review(5));
+        Assertions.assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        QueuedReviewDto second = queue.enqueue(1, review(4));
+        QueuedReviewDto third = queue.enqueue(2, review(3));
+        Assertions.assertThat(queue.status(second.getTrackingId()).getStatus()).isEqualTo(QueuedReviewStatus.QUEUED);
+
+        release.countDown();
+        queue.stop();
+
+        Assertions.assertThat(queue.size()).isZero();
+        Assertions.assertThat(queue.status(first.getTrackingId()).getStatus()).isEqualTo(QueuedReviewStatus.CREATED);
+        Assertions.assertThat(queue.status(second.getTrackingId()).getReviewId()).isEqualTo(101);
+        Assertions.assertThat(queue.status(third.getTrackingId()).getReviewId()).isEqualTo(201);
+        Assertions.assertThatThrownBy(() -> queue.enqueue(1, review(5))).isInstanceOf(ReviewQueueClosedException.class);
+        Assertions.assertThat(meterRegistry.get(ReviewWriteBehindQueue.REJECTED_METRIC_NAME).counter().count()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, List<ReviewDto>>> batches = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(reviewService, Mockito.times(2)).createReviews(batches.capture());
+        Assertions.assertThat(batches.getAllValues().get(1)).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should report the reviews left when the drain times out as failed")
+    public void failsUndrainedOnStop() throws Exception {
+        blockFirstBatch();
+        ReviewWriteBehindQueue impatient = new ReviewWriteBehindQueue(reviewService, 2, 100,
+                Duration.ofMillis(100), Duration.ofMinutes(10), new SimpleMeterRegistry());
+        impatient.start();
+
+        QueuedReviewDto first = impatient.enqueue(1, review(5));
+        Assertions.assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        QueuedReviewDto second = impatient.enqueue(1, review(4));
+        impatient.stop();
+
+        Assertions.assertThat(impatient.status(first.getTrackingId()).getStatus()).isEqualTo(QueuedReviewStatus.FAILED);
+        Assertions.assertThat(impatient.status(second.getTrackingId()).getStatus()).isEqualTo(QueuedReviewStatus.FAILED);
+        Assertions.assertThat(impatient.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report every review of a batch that could not be written as failed")
+    public void failedBatch() throws Exception {
+        Mockito.when(reviewService.createReviews(Mockito.any())).thenThrow(new IllegalStateException("database down"));
+        queue.start();
+
+        QueuedReviewDto queued = queue.enqueue(1, review(5));
+        queue.stop();
+
+        Assertions.assertThat(queue.status(queued.getTrackingId()).getStatus()).isEqualTo(QueuedReviewStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("Should fail only the review that cannot be written and write the rest of its batch")
+    public void badReviewInBatch() {
+        Mockito.when(reviewService.createReviews(Mockito.any())).thenAnswer(ReviewWriteBehindQueueTest::created);
+        //a batch holding the one star review fails as a whole, like a title too long for its column would
+        Mockito.doThrow(new IllegalStateException("value too long")).when(reviewService).createReviews(
+                Mockito.argThat(batch -> batch.values().stream().flatMap(List::stream).anyMatch(review -> review.getStars() == 1)));
+        ReviewWriteBehindQueue large = new ReviewWriteBehindQueue(reviewService, 10, 100,
+                Duration.ofSeconds(10), Duration.ofMinutes(10), new SimpleMeterRegistry());
+        large.start();
+
+        //however the writer splits these into batches, only the one star review may fail
+        List<QueuedReviewDto> queued = new ArrayList<>();
+        for (int stars : new int[]{5, 4, 1, 3, 2}) {
+            queued.add(large.enqueue(1, review(stars)));
+        }
+        large.stop();
+
+        Assertions.assertThat(queued).extracting(review -> large.status(review.getTrackingId()).getStatus()).containsExactly(
+                QueuedReviewStatus.CREATED, QueuedReviewStatus.CREATED, QueuedReviewStatus.FAILED,
+                QueuedReviewStatus.CREATED, QueuedReviewStatus.CREATED);
+    }
+
+    //the first batch waits for release, every batch is answered with ids of pokemonId * 100 + position
+    private void blockFirstBatch() {
+        Mockito.when(reviewService.createReviews(Mockito.any())).thenAnswer(invocation -> {
+            if (writerBlocked.getCount() > 0) {
+                writerBlocked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return created(invocation);
+        });
+    }
+
+    private static BulkResponse created(InvocationOnMock invocation) {
+        Map<Integer, List<ReviewDto>> reviewsByPokemonId = invocation.getArgument(0);
+        List<BulkItemResult> items = new ArrayList<>();
+        reviewsByPokemonId.forEach((pokemonId, reviews) -> {
+            for (int index = 0; index < reviews.size(); index++) {
+                items.add(new BulkItemResult(pokemonId, index, pokemonId * 100 + index + 1, BulkItemStatus.CREATED, null));
+            }
+        });
+        return new BulkResponse(items.size(), 0, 0, items);
+    }
+
+    private ReviewDto review(int stars) {
+        return ReviewDto.builder().title("title").content("content").stars(stars).build();
+    }
+}